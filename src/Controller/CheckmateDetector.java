@@ -1,11 +1,15 @@
 package Controller;
 
+import Model.Bitboards;
 import Model.Board;
+import Model.CheckEvasions;
 import Model.Move;
+import Model.MoveList;
+import Model.MoveUndo;
+import Model.PackedMove;
 import Model.Piece;
 import Model.PieceColor;
 import Model.Position;
-import Model.pieces.King;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,6 +17,7 @@ import java.util.List;
 public class CheckmateDetector {
     private Board board;
     private List<Position> availableMovePositions;
+    private final MoveList moveBuffer = new MoveList();
 
     /**
      * Creates a new CheckmateDetector that works with the provided board
@@ -48,7 +53,7 @@ public class CheckmateDetector {
      * @return true if black is checkmated, false otherwise
      */
     public boolean isBlackCheckmated() {
-        return board.isCheckmate(PieceColor.BLACK);
+        return isCheckmated(PieceColor.BLACK);
     }
 
     /**
@@ -57,7 +62,7 @@ public class CheckmateDetector {
      * @return true if white is checkmated, false otherwise
      */
     public boolean isWhiteCheckmated() {
-        return board.isCheckmate(PieceColor.WHITE);
+        return isCheckmated(PieceColor.WHITE);
     }
 
     /**
@@ -68,22 +73,38 @@ public class CheckmateDetector {
      */
     public List<Position> getValidDestinations(boolean isWhiteTurn) {
         int activeColor = isWhiteTurn ? PieceColor.WHITE : PieceColor.BLACK;
-        List<Move> legalMoves = board.getAllLegalMoves(activeColor);
+        long destinations = getValidDestinationMask(activeColor);
 
         // Clear the previous list of positions
         availableMovePositions.clear();
 
-        // Build the new list from legal moves
-        for (Move move : legalMoves) {
-            Position destination = move.getDestination();
-            if (!availableMovePositions.contains(destination)) {
-                availableMovePositions.add(destination);
-            }
+        // The mask already holds each square once
+        while (destinations != 0) {
+            int square = Bitboards.lowestSquare(destinations);
+            destinations &= destinations - 1;
+            availableMovePositions.add(Position.ofSquare(square));
         }
 
         return availableMovePositions;
     }
 
+    /**
+     * Gets every square a player can move a piece to, as a bitboard mask
+     *
+     * @param color the player's color
+     * @return mask of destination squares (bit index row * 8 + column)
+     */
+    public long getValidDestinationMask(int color) {
+        moveBuffer.clear();
+        board.generateLegalMoves(color, moveBuffer);
+
+        long destinations = 0L;
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            destinations |= Bitboards.bit(PackedMove.to(moveBuffer.get(i)));
+        }
+        return destinations;
+    }
+
     /**
      * Tests if a proposed move would be legal (not leaving the king in check)
      *
@@ -103,14 +124,13 @@ public class CheckmateDetector {
                 capturedPiece
         );
 
-        // Create a copy of the board to test the move
-        Board simulationBoard = new Board(board);
+        // Play the move in place, test the king, then take it back
+        MoveUndo undo = board.makeMove(proposedMove);
+        boolean kingInCheck = board.isKingInCheck(piece.getColor());
+        board.unmakeMove(undo);
 
-        // Execute the move on the copy
-        simulationBoard.executeMove(proposedMove);
-
-        // Check if the player's king would be in check after this move
-        return !simulationBoard.isKingInCheck(piece.getColor());
+        // The move is legal if the player's king is not left in check
+        return !kingInCheck;
     }
 
     /**
@@ -122,15 +142,28 @@ public class CheckmateDetector {
         this.board = board;
     }
 
+    /**
+     * Determines if a player is checkmated: in check with no king escape,
+     * no capture of the checker and no block
+     *
+     * @param color The color of the side to test
+     * @return true if that side is checkmated
+     */
+    private boolean isCheckmated(int color) {
+        return board.isKingInCheck(color)
+                && !canKingEscape(color)
+                && !canAttackerBeCaptured(color)
+                && !canCheckBeBlocked(color);
+    }
+
     /**
      * Checks if the king has any legal moves to escape check
      *
-     * @param king The king to analyze
+     * @param color The color of the side being checked
      * @return true if the king can move to a safe square
      */
-    private boolean canKingEscape(King king) {
-        List<Move> kingMoves = king.getLegalMoves(board);
-        return !kingMoves.isEmpty();
+    private boolean canKingEscape(int color) {
+        return CheckEvasions.kingEscapes(board, color) != 0;
     }
 
     /**
@@ -140,34 +173,7 @@ public class CheckmateDetector {
      * @return true if the attacking piece can be captured
      */
     private boolean canAttackerBeCaptured(int color) {
-        King king = board.getKing(color);
-        int opponentColor = (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
-        List<Piece> checkingPieces = findCheckingPieces(king, opponentColor);
-
-        // Can only capture if there's exactly one piece giving check
-        if (checkingPieces.size() != 1) {
-            return false;
-        }
-
-        Piece attacker = checkingPieces.get(0);
-        List<Piece> friendlyPieces = board.getPiecesByColor(color);
-
-        for (Piece defender : friendlyPieces) {
-            List<Move> possibleMoves = defender.getLegalMoves(board);
-            for (Move move : possibleMoves) {
-                if (move.getDestination().equals(attacker.getPosition())) {
-                    // Make sure this capture doesn't leave king in check
-                    Board tempBoard = new Board(board);
-                    tempBoard.executeMove(move);
-
-                    if (!tempBoard.isKingInCheck(color)) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
+        return CheckEvasions.capturers(board, color) != 0;
     }
 
     /**
@@ -177,119 +183,6 @@ public class CheckmateDetector {
      * @return true if a piece can block the check
      */
     private boolean canCheckBeBlocked(int color) {
-        King king = board.getKing(color);
-        int opponentColor = (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
-        List<Piece> checkingPieces = findCheckingPieces(king, opponentColor);
-
-        // Can only block if there's exactly one piece giving check
-        if (checkingPieces.size() != 1) {
-            return false;
-        }
-
-        // Only sliding pieces (queen, rook, bishop) can be blocked
-        Piece attacker = checkingPieces.get(0);
-        String pieceType = attacker.getType();
-
-        if (!pieceType.equals("Queen") && !pieceType.equals("Rook") && !pieceType.equals("Bishop")) {
-            return false;
-        }
-
-        // Find squares between attacker and king
-        List<Position> pathSquares = findSquaresBetween(attacker.getPosition(), king.getPosition());
-
-        // Check if any friendly piece can move to block
-        List<Piece> friendlyPieces = board.getPiecesByColor(color);
-
-        for (Piece defender : friendlyPieces) {
-            if (defender instanceof King) continue;  // King can't block check
-
-            List<Move> possibleMoves = defender.getLegalMoves(board);
-            for (Move move : possibleMoves) {
-                if (pathSquares.contains(move.getDestination())) {
-                    // Verify this block doesn't leave king in check
-                    Board tempBoard = new Board(board);
-                    tempBoard.executeMove(move);
-
-                    if (!tempBoard.isKingInCheck(color)) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Finds all pieces currently checking the king
-     *
-     * @param king The king being checked
-     * @param opponentColor The color of potential attackers
-     * @return List of pieces giving check to the king
-     */
-    private List<Piece> findCheckingPieces(King king, int opponentColor) {
-        List<Piece> checkingPieces = new ArrayList<>();
-        List<Piece> opponentPieces = board.getPiecesByColor(opponentColor);
-        Position kingPosition = king.getPosition();
-
-        for (Piece piece : opponentPieces) {
-            List<Position> attackPositions = piece.getAttackPositions(board);
-            if (attackPositions.contains(kingPosition)) {
-                checkingPieces.add(piece);
-            }
-        }
-
-        return checkingPieces;
-    }
-
-    /**
-     * Finds all squares between two positions (for straight lines or diagonals)
-     *
-     * @param start Starting position
-     * @param end Ending position
-     * @return List of positions between start and end (exclusive)
-     */
-    private List<Position> findSquaresBetween(Position start, Position end) {
-        List<Position> squares = new ArrayList<>();
-
-        int startCol = start.getColumn();
-        int startRow = start.getRow();
-        int endCol = end.getColumn();
-        int endRow = end.getRow();
-
-        // Same row - horizontal
-        if (startRow == endRow) {
-            int minCol = Math.min(startCol, endCol);
-            int maxCol = Math.max(startCol, endCol);
-
-            for (int col = minCol + 1; col < maxCol; col++) {
-                squares.add(new Position(col, startRow));
-            }
-        }
-        // Same column - vertical
-        else if (startCol == endCol) {
-            int minRow = Math.min(startRow, endRow);
-            int maxRow = Math.max(startRow, endRow);
-
-            for (int row = minRow + 1; row < maxRow; row++) {
-                squares.add(new Position(startCol, row));
-            }
-        }
-        // Diagonal path
-        else if (Math.abs(startCol - endCol) == Math.abs(startRow - endRow)) {
-            int colDirection = (endCol > startCol) ? 1 : -1;
-            int rowDirection = (endRow > startRow) ? 1 : -1;
-
-            int col = startCol + colDirection;
-            int row = startRow + rowDirection;
-
-            while (col != endCol && row != endRow) {
-                squares.add(new Position(col, row));
-                col += colDirection;
-                row += rowDirection;
-            }
-        }
-
-        return squares;
+        return CheckEvasions.blockers(board, color) != 0;
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,46 @@
 package Controller;
 
+import Model.Bitboards;
 import Model.Board;
+import Model.BoardSnapshot;
 import Model.Clock;
+import Model.Engine;
 import Model.GameState;
 import Model.Move;
+import Model.PackedMove;
 import Model.Piece;
 import Model.PieceColor;
 import Model.Position;
+import Model.SearchLimits;
+import Model.SearchResult;
 import View.GameWindow;
 
+import javax.swing.SwingUtilities;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Main controller for the chess game that connects the model and view.
  * Handles game logic, user interactions, and time control.
  */
 public class GameController {
+    // Thinking time for each computer move
+    private static final SearchLimits COMPUTER_MOVE_LIMITS = SearchLimits.time(1000);
+
+    private final Engine engine = new Engine();
+    // Runs one search at a time, since the engine is not reentrant
+    private final ExecutorService searchThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Computer player");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Bumped whenever a game starts or ends, so a search from an earlier game is dropped
+    private volatile int gameGeneration;
+    private boolean computerThinking;
     private GameState gameState;
     private GameWindow view;
     private String gameMode;
@@ -33,6 +55,16 @@ public class GameController {
         this.clockRunning = false;
     }
 
+    /**
+     * Sets the number of threads the computer player searches with. The
+     * default is one, which leaves the other cores to the rest of the machine.
+     *
+     * @param threads The number of search threads, at least one
+     */
+    public void setEngineThreads(int threads) {
+        engine.setThreads(threads);
+    }
+
     /**
      * Sets the game view.
      *
@@ -48,6 +80,7 @@ public class GameController {
      * @param gameMode The game mode to use
      */
     public void startNewGame(String gameMode) {
+        cancelComputerMove();
         this.gameMode = gameMode;
         gameState.resetGame();
 
@@ -77,6 +110,7 @@ public class GameController {
      * @param seconds Seconds for each player's clock
      */
     public void startTimedGame(String gameMode, int hours, int minutes, int seconds) {
+        cancelComputerMove();
         this.gameMode = gameMode;
         gameState = new GameState(hours, minutes, seconds);
 
@@ -94,12 +128,17 @@ public class GameController {
 
     /**
      * Makes a move from the source position to the target position.
+     * Moves are refused while the computer is thinking.
      *
      * @param fromPosition The source position
      * @param toPosition The target position
      * @return True if the move was successful, false otherwise
      */
     public boolean makeMove(Position fromPosition, Position toPosition) {
+        if (computerThinking) {
+            return false;
+        }
+
         // Get the piece at the source position
         Board board = gameState.getBoard();
         Piece piece = board.getPiece(fromPosition);
@@ -108,20 +147,12 @@ public class GameController {
             return false;
         }
 
-        // Find a legal move that matches the from and to positions
-        List<Move> legalMoves = getLegalMovesForPiece(piece);
-        Move moveToMake = null;
-
-        for (Move move : legalMoves) {
-            if (move.getOrigin().equals(fromPosition) && move.getDestination().equals(toPosition)) {
-                moveToMake = move;
-                break;
-            }
-        }
-
-        if (moveToMake == null) {
+        // Check this one move directly instead of generating all of the piece's moves
+        int legalMove = board.findLegalMove(fromPosition, toPosition, Bitboards.QUEEN);
+        if (legalMove == PackedMove.NONE) {
             return false;
         }
+        Move moveToMake = board.toMove(legalMove);
 
         // Make the move
         boolean successful = gameState.makeMove(moveToMake);
@@ -147,37 +178,66 @@ public class GameController {
     }
 
     /**
-     * Makes a computer move using a simple AI.
+     * Makes a computer move chosen by the search engine. The search runs on
+     * a copy of the board in the background; its move is played on the event
+     * dispatch thread, and only if the game is still in the position searched.
      */
     private void makeComputerMove() {
-        // Simple AI: choose a random legal move
-        List<Move> legalMoves = getAllLegalMoves(gameState.getCurrentPlayerColor());
-
-        if (!legalMoves.isEmpty()) {
-            // For now, just pick the first legal move
-            // This could be improved with a proper chess AI
-            Move computerMove = legalMoves.get(0);
-
-            // Make the move after a short delay
-            new Thread(() -> {
-                try {
-                    Thread.sleep(500); // 0.5 second delay
-                    gameState.makeMove(computerMove);
-                    updateView();
-
-                    // Check if the game is over
-                    if (gameState.isGameOver()) {
-                        stopClock();
-                        view.showGameOver(gameState.getGameResult());
-                    } else if (gameMode.equals("Computer vs Computer")) {
-                        // Continue with next computer move
-                        makeComputerMove();
-                    }
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
+        Board board = gameState.getBoard();
+        if (!board.hasAnyLegalMove(gameState.getCurrentPlayerColor())) {
+            return;
         }
+
+        computerThinking = true;
+        int generation = gameGeneration;
+        Board position = new Board(board);
+        long positionKey = position.getZobristKey();
+        long[] previousPositions = gameState.getRepetitionHistory();
+
+        searchThread.execute(() -> {
+            if (generation != gameGeneration) {
+                return;
+            }
+            SearchResult result = engine.search(position, COMPUTER_MOVE_LIMITS, previousPositions);
+            SwingUtilities.invokeLater(() -> applyComputerMove(generation, positionKey, result));
+        });
+    }
+
+    /**
+     * Plays a finished search's move, unless the game was restarted or ended
+     * or the position changed while it ran.
+     */
+    private void applyComputerMove(int generation, long positionKey, SearchResult result) {
+        if (generation != gameGeneration) {
+            return;
+        }
+        computerThinking = false;
+        Board board = gameState.getBoard();
+        if (gameState.isGameOver() || board.getZobristKey() != positionKey
+                || result.getBestMove() == PackedMove.NONE) {
+            return;
+        }
+
+        gameState.makeMove(board.toMove(result.getBestMove()));
+        updateView();
+
+        // Check if the game is over
+        if (gameState.isGameOver()) {
+            stopClock();
+            view.showGameOver(gameState.getGameResult());
+        } else if (gameMode.equals("Computer vs Computer")) {
+            // Continue with next computer move
+            makeComputerMove();
+        }
+    }
+
+    /**
+     * Stops a running search and makes sure its move is never played.
+     */
+    private void cancelComputerMove() {
+        gameGeneration++;
+        computerThinking = false;
+        engine.stop();
     }
 
     /**
@@ -187,11 +247,14 @@ public class GameController {
         if (view != null) {
             view.refreshBoard();
 
+            // Read the published snapshot so the clock thread never sees a half-made move
+            BoardSnapshot snapshot = gameState.getSnapshot();
+
             // Update status message
-            String statusMessage = PieceColor.colorName(gameState.getCurrentPlayerColor()) + "'s turn";
+            String statusMessage = PieceColor.colorName(snapshot.getSideToMove()) + "'s turn";
 
             // Add check notification if applicable
-            if (gameState.isInCheck(gameState.getCurrentPlayerColor())) {
+            if (snapshot.isInCheck()) {
                 statusMessage += " (CHECK)";
             }
 
@@ -233,7 +296,10 @@ public class GameController {
         List<Position> movePositions = new ArrayList<>();
 
         for (Move move : legalMoves) {
-            movePositions.add(move.getDestination());
+            // A promotion appears once per piece the pawn can become
+            if (!movePositions.contains(move.getDestination())) {
+                movePositions.add(move.getDestination());
+            }
         }
 
         return movePositions;
@@ -250,22 +316,28 @@ public class GameController {
     }
 
     /**
-     * Gets all legal moves for the specified color.
-     *
-     * @param color The color to get moves for
-     * @return A list of all legal moves
+     * Forfeits the current game for the current player.
      */
-    private List<Move> getAllLegalMoves(int color) {
-        return gameState.getBoard().getAllLegalMoves(color);
+    public void surrender() {
+        cancelComputerMove();
+        gameState.surrender();
+        stopClock();
+        view.showGameOver(gameState.getGameResult());
     }
 
     /**
-     * Forfeits the current game for the current player.
+     * Claims a draw by threefold repetition for the current player.
+     *
+     * @return True if the claim was valid and the game ended in a draw
      */
-    public void surrender() {
-        gameState.surrender();
+    public boolean claimThreefoldRepetition() {
+        if (!gameState.claimThreefoldRepetition()) {
+            return false;
+        }
+        cancelComputerMove();
         stopClock();
         view.showGameOver(gameState.getGameResult());
+        return true;
     }
 
     /**
@@ -277,6 +349,15 @@ public class GameController {
         return gameState.getBoard();
     }
 
+    /**
+     * Gets the latest immutable snapshot of the board, safe to read from any thread.
+     *
+     * @return The current board snapshot
+     */
+    public BoardSnapshot getBoardSnapshot() {
+        return gameState.getSnapshot();
+    }
+
     /**
      * Gets the color of the player whose turn it is.
      *
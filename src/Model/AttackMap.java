@@ -0,0 +1,113 @@
+package Model;
+
+/**
+ * Attack information kept up to date as pieces are placed and removed:
+ * the squares each piece attacks, the attackers of each square, and for each
+ * color how many of its pieces attack every square.
+ */
+final class AttackMap {
+    // Squares attacked by the piece standing on each square
+    private final long[] attacksFrom;
+    // Squares of the pieces (of either color) attacking each square
+    private final long[] attackersTo;
+    // Number of pieces of each color attacking each square, indexed [color][square]
+    private final int[][] attackCounts;
+    // Squares attacked at least once by each color
+    private final long[] colorAttacks;
+
+    AttackMap() {
+        attacksFrom = new long[64];
+        attackersTo = new long[64];
+        attackCounts = new int[2][64];
+        colorAttacks = new long[2];
+    }
+
+    AttackMap(AttackMap original) {
+        attacksFrom = original.attacksFrom.clone();
+        attackersTo = original.attackersTo.clone();
+        attackCounts = new int[][]{original.attackCounts[0].clone(), original.attackCounts[1].clone()};
+        colorAttacks = original.colorAttacks.clone();
+    }
+
+    long getAttacksFrom(int square) {
+        return attacksFrom[square];
+    }
+
+    long getAttackersTo(int square) {
+        return attackersTo[square];
+    }
+
+    long getColorAttacks(int color) {
+        return colorAttacks[color];
+    }
+
+    boolean isAttacked(int square, int byColor) {
+        return (colorAttacks[byColor] & Bitboards.bit(square)) != 0;
+    }
+
+    /**
+     * Record a new piece's attacks
+     */
+    void addPiece(int square, int color, long attacks) {
+        attacksFrom[square] = attacks;
+        addAttacks(square, color, attacks);
+    }
+
+    /**
+     * Forget the attacks of a piece leaving a square
+     */
+    void removePiece(int square, int color) {
+        removeAttacks(square, color, attacksFrom[square]);
+        attacksFrom[square] = 0L;
+    }
+
+    /**
+     * Replace a piece's attacks, touching only the squares that changed
+     */
+    void updatePiece(int square, int color, long attacks) {
+        long previous = attacksFrom[square];
+        if (previous == attacks) {
+            return;
+        }
+        attacksFrom[square] = attacks;
+        removeAttacks(square, color, previous & ~attacks);
+        addAttacks(square, color, attacks & ~previous);
+    }
+
+    void clear() {
+        for (int square = 0; square < 64; square++) {
+            attacksFrom[square] = 0L;
+            attackersTo[square] = 0L;
+            attackCounts[0][square] = 0;
+            attackCounts[1][square] = 0;
+        }
+        colorAttacks[0] = 0L;
+        colorAttacks[1] = 0L;
+    }
+
+    private void addAttacks(int fromSquare, int color, long targets) {
+        long fromBit = Bitboards.bit(fromSquare);
+        int[] counts = attackCounts[color];
+        while (targets != 0) {
+            int target = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            attackersTo[target] |= fromBit;
+            if (counts[target]++ == 0) {
+                colorAttacks[color] |= Bitboards.bit(target);
+            }
+        }
+    }
+
+    private void removeAttacks(int fromSquare, int color, long targets) {
+        long fromBit = Bitboards.bit(fromSquare);
+        int[] counts = attackCounts[color];
+        while (targets != 0) {
+            int target = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            attackersTo[target] &= ~fromBit;
+            if (--counts[target] == 0) {
+                colorAttacks[color] &= ~Bitboards.bit(target);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package Model;
+
+/**
+ * Precomputed bitboard tables and helpers shared by the board and move generation.
+ * Squares are indexed as row * 8 + column, so bit 0 is a8 (column 0, row 0)
+ * and bit 63 is h1 (column 7, row 7), matching the board array layout.
+ */
+public final class Bitboards {
+    // Piece kind indices used for the per-kind masks; these are the PieceKind ordinals
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+    public static final int KIND_COUNT = 6;
+
+    // Ray directions as {column step, row step}; row 0 is the black back rank
+    public static final int NORTH = 0;
+    public static final int NORTH_EAST = 1;
+    public static final int EAST = 2;
+    public static final int SOUTH_EAST = 3;
+    public static final int SOUTH = 4;
+    public static final int SOUTH_WEST = 5;
+    public static final int WEST = 6;
+    public static final int NORTH_WEST = 7;
+    private static final int[][] DIRECTIONS = {
+            {0, -1}, {1, -1}, {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}
+    };
+
+    public static final long EMPTY = 0L;
+    public static final long LIGHT_SQUARES;
+    public static final long DARK_SQUARES;
+
+    public static final long[] KNIGHT_ATTACKS = new long[64];
+    public static final long[] KING_ATTACKS = new long[64];
+    // Indexed by PieceColor (BLACK = 0, WHITE = 1), then by square
+    public static final long[][] PAWN_ATTACKS = new long[2][64];
+    // Indexed by direction, then by square; excludes the origin square
+    public static final long[][] RAYS = new long[8][64];
+    // Squares strictly between two aligned squares, 0 when they are not aligned
+    public static final long[][] BETWEEN = new long[64][64];
+    // Full board line through two aligned squares, 0 when they are not aligned
+    public static final long[][] LINE = new long[64][64];
+
+    private static final int[][] KNIGHT_JUMPS = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
+            {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    };
+
+    static {
+        long light = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            int col = column(sq);
+            int row = row(sq);
+            // a8 (0, 0) and h1 (7, 7) are light squares
+            if ((col + row) % 2 == 0) {
+                light |= bit(sq);
+            }
+
+            for (int[] jump : KNIGHT_JUMPS) {
+                KNIGHT_ATTACKS[sq] |= bitIfValid(col + jump[0], row + jump[1]);
+            }
+
+            for (int[] dir : DIRECTIONS) {
+                KING_ATTACKS[sq] |= bitIfValid(col + dir[0], row + dir[1]);
+            }
+
+            // White pawns advance towards row 0, black pawns towards row 7
+            PAWN_ATTACKS[PieceColor.WHITE][sq] = bitIfValid(col - 1, row - 1) | bitIfValid(col + 1, row - 1);
+            PAWN_ATTACKS[PieceColor.BLACK][sq] = bitIfValid(col - 1, row + 1) | bitIfValid(col + 1, row + 1);
+
+            for (int d = 0; d < 8; d++) {
+                int c = col + DIRECTIONS[d][0];
+                int r = row + DIRECTIONS[d][1];
+                while (isOnBoard(c, r)) {
+                    RAYS[d][sq] |= bit(square(c, r));
+                    c += DIRECTIONS[d][0];
+                    r += DIRECTIONS[d][1];
+                }
+            }
+        }
+        LIGHT_SQUARES = light;
+        DARK_SQUARES = ~light;
+
+        for (int from = 0; from < 64; from++) {
+            for (int d = 0; d < 8; d++) {
+                long ray = RAYS[d][from];
+                long opposite = RAYS[(d + 4) % 8][from];
+                long remaining = ray;
+                while (remaining != 0) {
+                    int to = Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    BETWEEN[from][to] = ray & RAYS[(d + 4) % 8][to];
+                    LINE[from][to] = ray | opposite | bit(from);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+        // Utility class
+    }
+
+    public static int square(int column, int row) {
+        return row * 8 + column;
+    }
+
+    public static int square(Position position) {
+        return position.getSquare();
+    }
+
+    public static int column(int square) {
+        return square & 7;
+    }
+
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static boolean isOnBoard(int column, int row) {
+        return column >= 0 && column < 8 && row >= 0 && row < 8;
+    }
+
+    private static long bitIfValid(int column, int row) {
+        return isOnBoard(column, row) ? bit(square(column, row)) : 0L;
+    }
+
+    /**
+     * Index of the lowest set bit; callers must pass a non-empty mask
+     */
+    public static int lowestSquare(long mask) {
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Maps a piece to its kind index for the per-kind masks
+     */
+    public static int kindOf(Piece piece) {
+        return piece.getKind().ordinal();
+    }
+
+    /**
+     * Attacks along one ray, stopping at (and including) the first blocker.
+     * Used to build the magic tables; the slider lookups below are the fast path.
+     */
+    public static long rayAttacks(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) {
+            return ray;
+        }
+        // East, south-east, south and south-west rays run towards higher square indices
+        int blocker = (direction >= EAST && direction <= SOUTH_WEST)
+                ? Long.numberOfTrailingZeros(blockers)
+                : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[direction][blocker];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return MagicBitboards.rookAttacks(square, occupied);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return MagicBitboards.bishopAttacks(square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Squares attacked by a piece of the given kind and color standing on a square
+     */
+    public static long pieceAttacks(int kind, int color, int square, long occupied) {
+        switch (kind) {
+            case PAWN:
+                return PAWN_ATTACKS[color][square];
+            case KNIGHT:
+                return KNIGHT_ATTACKS[square];
+            case BISHOP:
+                return bishopAttacks(square, occupied);
+            case ROOK:
+                return rookAttacks(square, occupied);
+            case QUEEN:
+                return queenAttacks(square, occupied);
+            default:
+                return KING_ATTACKS[square];
+        }
+    }
+}
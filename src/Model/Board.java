@@ -1,35 +1,81 @@
 package Model;
 import Model.pieces.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class Board {
     private final Piece[][] boardArray;
-    private List<Piece> lightPieces;
-    private List<Piece> darkPieces;
-    private List<Move> moveSequence;
+    private final PieceList lightPieces;
+    private final PieceList darkPieces;
+    private final MoveHistory moveSequence;
     private King lightKing;
     private King darkKing;
 
+    // Bitboards kept in sync with boardArray: one mask per color and kind, plus occupancy
+    private final long[][] pieceMasks;
+    private final long[] colorMasks;
+    private long occupied;
+    private final AttackMap attackMap;
+
+    // Bumped on every square change so cached per-position data can be invalidated
+    private int positionVersion;
+    private final LegalityMasks[] legalityCache = new LegalityMasks[2];
+    private final PositionStatus[] statusCache = new PositionStatus[2];
+
+    // Mailbox of packed piece codes (see PackedMove), 0 for empty squares
+    private final int[] pieceCodes;
+
+    // Square a pawn may capture onto en passant this move, or -1
+    private int enPassantSquare = -1;
+
+    // Color of the side to move: the opponent of whoever moved last
+    private int sideToMove = PieceColor.WHITE;
+
+    // Zobrist key of the piece placement, updated on every square change
+    private long pieceKey;
+
+    // Piece counts per color and kind (see MaterialKey), updated on every square change
+    private long materialKey;
+
+    // Reused undo records for packed make/unmake
+    private MoveUndo[] undoPool = new MoveUndo[64];
+    private int undoDepth;
+
     public Board() {
         boardArray = new Piece[8][8];
-        lightPieces = new ArrayList<>();
-        darkPieces = new ArrayList<>();
-        moveSequence = new ArrayList<>();
+        lightPieces = new PieceList();
+        darkPieces = new PieceList();
+        moveSequence = new MoveHistory();
+        pieceMasks = new long[2][Bitboards.KIND_COUNT];
+        colorMasks = new long[2];
+        attackMap = new AttackMap();
+        pieceCodes = new int[64];
         setupInitialPosition();
     }
 
     // Deep copy constructor
     public Board(Board original) {
         this.boardArray = new Piece[8][8];
-        this.lightPieces = new ArrayList<>();
-        this.darkPieces = new ArrayList<>();
-        this.moveSequence = new ArrayList<>(original.moveSequence);
+        this.lightPieces = new PieceList();
+        this.darkPieces = new PieceList();
+        // Shares the moves with the original in O(1)
+        this.moveSequence = new MoveHistory(original.moveSequence);
+        this.pieceMasks = new long[][]{original.pieceMasks[0].clone(), original.pieceMasks[1].clone()};
+        this.colorMasks = original.colorMasks.clone();
+        this.occupied = original.occupied;
+        this.attackMap = new AttackMap(original.attackMap);
+        this.pieceCodes = original.pieceCodes.clone();
+        this.enPassantSquare = original.enPassantSquare;
+        this.sideToMove = original.sideToMove;
+        this.pieceKey = original.pieceKey;
+        this.materialKey = original.materialKey;
 
         // Copy the light pieces
         for (Piece lightPiece : original.lightPieces) {
             Piece copiedPiece = lightPiece.duplicate();
-            lightPieces.add(copiedPiece);
+            lightPieces.append(copiedPiece);
             Position pos = copiedPiece.getPosition();
             if (pos != null) {
                 boardArray[pos.getRow()][pos.getColumn()] = copiedPiece;
@@ -44,7 +90,7 @@ public class Board {
         // Copy the dark pieces
         for (Piece darkPiece : original.darkPieces) {
             Piece copiedPiece = darkPiece.duplicate();
-            darkPieces.add(copiedPiece);
+            darkPieces.append(copiedPiece);
             Position pos = copiedPiece.getPosition();
             if (pos != null) {
                 boardArray[pos.getRow()][pos.getColumn()] = copiedPiece;
@@ -60,47 +106,46 @@ public class Board {
     private void setupInitialPosition() {
         // Setup pawns
         for (int col = 0; col < 8; col++) {
-            addPieceToBoard(new Pawn(PieceColor.BLACK, new Position(col, 1)));
-            addPieceToBoard(new Pawn(PieceColor.WHITE, new Position(col, 6)));
+            addPieceToBoard(new Pawn(PieceColor.BLACK, Position.of(col, 1)));
+            addPieceToBoard(new Pawn(PieceColor.WHITE, Position.of(col, 6)));
         }
 
         // Setup rooks
-        addPieceToBoard(new Rook(PieceColor.BLACK, new Position(0, 0)));
-        addPieceToBoard(new Rook(PieceColor.BLACK, new Position(7, 0)));
-        addPieceToBoard(new Rook(PieceColor.WHITE, new Position(0, 7)));
-        addPieceToBoard(new Rook(PieceColor.WHITE, new Position(7, 7)));
+        addPieceToBoard(new Rook(PieceColor.BLACK, Position.of(0, 0)));
+        addPieceToBoard(new Rook(PieceColor.BLACK, Position.of(7, 0)));
+        addPieceToBoard(new Rook(PieceColor.WHITE, Position.of(0, 7)));
+        addPieceToBoard(new Rook(PieceColor.WHITE, Position.of(7, 7)));
 
         // Setup knights
-        addPieceToBoard(new Knight(PieceColor.BLACK, new Position(1, 0)));
-        addPieceToBoard(new Knight(PieceColor.BLACK, new Position(6, 0)));
-        addPieceToBoard(new Knight(PieceColor.WHITE, new Position(1, 7)));
-        addPieceToBoard(new Knight(PieceColor.WHITE, new Position(6, 7)));
+        addPieceToBoard(new Knight(PieceColor.BLACK, Position.of(1, 0)));
+        addPieceToBoard(new Knight(PieceColor.BLACK, Position.of(6, 0)));
+        addPieceToBoard(new Knight(PieceColor.WHITE, Position.of(1, 7)));
+        addPieceToBoard(new Knight(PieceColor.WHITE, Position.of(6, 7)));
 
         // Setup bishops
-        addPieceToBoard(new Bishop(PieceColor.BLACK, new Position(2, 0)));
-        addPieceToBoard(new Bishop(PieceColor.BLACK, new Position(5, 0)));
-        addPieceToBoard(new Bishop(PieceColor.WHITE, new Position(2, 7)));
-        addPieceToBoard(new Bishop(PieceColor.WHITE, new Position(5, 7)));
+        addPieceToBoard(new Bishop(PieceColor.BLACK, Position.of(2, 0)));
+        addPieceToBoard(new Bishop(PieceColor.BLACK, Position.of(5, 0)));
+        addPieceToBoard(new Bishop(PieceColor.WHITE, Position.of(2, 7)));
+        addPieceToBoard(new Bishop(PieceColor.WHITE, Position.of(5, 7)));
 
         // Setup queens
-        addPieceToBoard(new Queen(PieceColor.BLACK, new Position(3, 0)));
-        addPieceToBoard(new Queen(PieceColor.WHITE, new Position(3, 7)));
+        addPieceToBoard(new Queen(PieceColor.BLACK, Position.of(3, 0)));
+        addPieceToBoard(new Queen(PieceColor.WHITE, Position.of(3, 7)));
 
         // Setup kings
-        darkKing = new King(PieceColor.BLACK, new Position(4, 0));
-        lightKing = new King(PieceColor.WHITE, new Position(4, 7));
+        darkKing = new King(PieceColor.BLACK, Position.of(4, 0));
+        lightKing = new King(PieceColor.WHITE, Position.of(4, 7));
         addPieceToBoard(darkKing);
         addPieceToBoard(lightKing);
     }
 
     private void addPieceToBoard(Piece piece) {
-        Position pos = piece.getPosition();
-        boardArray[pos.getRow()][pos.getColumn()] = piece;
+        setSquare(piece.getPosition().getSquare(), piece);
 
         if (piece.getColor() == PieceColor.WHITE) {
-            lightPieces.add(piece);
+            lightPieces.append(piece);
         } else {
-            darkPieces.add(piece);
+            darkPieces.append(piece);
         }
     }
 
@@ -111,14 +156,81 @@ public class Board {
         return boardArray[position.getRow()][position.getColumn()];
     }
 
+    public Piece getPieceAt(int square) {
+        return boardArray[Bitboards.row(square)][Bitboards.column(square)];
+    }
+
+    /**
+     * Get the packed piece code on a square (see PackedMove), 0 if empty
+     */
+    public int getPieceCode(int square) {
+        return pieceCodes[square];
+    }
+
+    /**
+     * Get the square a pawn may capture onto en passant, or -1 if there is none
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Set whose turn it is, for positions set up piece by piece
+     */
+    public void setSideToMove(int color) {
+        sideToMove = color;
+    }
+
+    /**
+     * Get the Zobrist key of this position: piece placement, side to move,
+     * castling rights and en passant file. Equal positions have equal keys.
+     */
+    public long getZobristKey() {
+        // Castling rights are read live because tests and setup code change hasMoved directly
+        return pieceKey ^ Zobrist.stateKey(this);
+    }
+
+    /**
+     * Get the material signature of this position (see MaterialKey)
+     */
+    public long getMaterialKey() {
+        return materialKey;
+    }
+
     public boolean isPositionInBounds(Position position) {
         int col = position.getColumn();
         int row = position.getRow();
         return col >= 0 && col < 8 && row >= 0 && row < 8;
     }
 
+    /**
+     * Get a read-only view of one side's pieces. The view is not a copy: it
+     * reflects later moves, and make/unmake pairs leave its order unchanged.
+     */
     public List<Piece> getPiecesByColor(int color) {
-        return color == PieceColor.WHITE ? new ArrayList<>(lightPieces) : new ArrayList<>(darkPieces);
+        return piecesOf(color);
+    }
+
+    /**
+     * Run an action on each of one side's pieces without copying the list
+     */
+    public void forEachPiece(int color, Consumer<? super Piece> action) {
+        PieceList pieces = piecesOf(color);
+        for (int i = 0; i < pieces.size(); i++) {
+            action.accept(pieces.get(i));
+        }
+    }
+
+    public int getPieceCount(int color) {
+        return piecesOf(color).size();
+    }
+
+    private PieceList piecesOf(int color) {
+        return color == PieceColor.WHITE ? lightPieces : darkPieces;
     }
 
     public King getKing(int color) {
@@ -126,95 +238,247 @@ public class Board {
     }
 
     public boolean executeMove(Move move) {
-        Position from = move.getOrigin();
-        Position to = move.getDestination();
-        Piece piece = move.getMovingPiece();
-
-        // Handle captured piece
-        if (move.getTakenPiece() != null) {
-            Piece capturedPiece = move.getTakenPiece();
-            if (capturedPiece.getColor() == PieceColor.WHITE) {
-                lightPieces.remove(capturedPiece);
-            } else {
-                darkPieces.remove(capturedPiece);
-            }
+        makeMove(move);
+        return true;
+    }
+
+    /**
+     * Apply a move in place and return the record needed to take it back.
+     * Handles captures, en passant, castling and promotion.
+     */
+    public MoveUndo makeMove(Move move) {
+        MoveUndo undo = new MoveUndo();
+        undo.move = move;
+        applyMove(undo, move.getMovingPiece(), move.getOrigin().getSquare(), move.getDestination().getSquare(),
+                move.isCastlingMove(), move.isEnPassantCapture(), move.isPromotion() ? move.getPromotionKind() : -1);
+
+        // Add to move history
+        moveSequence.append(move);
+        return undo;
+    }
+
+    /**
+     * Take back the most recent move made with makeMove(Move) or executeMove
+     */
+    public void unmakeMove(MoveUndo undo) {
+        moveSequence.removeLast();
+        revertMove(undo);
+    }
+
+    /**
+     * Apply a packed move in place, recording the undo information in a reused
+     * record so nothing is allocated. Packed moves are search moves and are not
+     * added to the move history.
+     */
+    public void makeMove(int move) {
+        if (undoDepth == undoPool.length) {
+            MoveUndo[] grown = new MoveUndo[undoPool.length * 2];
+            System.arraycopy(undoPool, 0, grown, 0, undoDepth);
+            undoPool = grown;
         }
+        MoveUndo undo = undoPool[undoDepth];
+        if (undo == null) {
+            undo = new MoveUndo();
+            undoPool[undoDepth] = undo;
+        }
+        undoDepth++;
 
-        // Special handling for en passant
-        if (move.isEnPassantCapture()) {
-            Position capturedPawnPos = new Position(to.getColumn(), from.getRow());
-            Piece capturedPawn = getPiece(capturedPawnPos);
+        int from = PackedMove.from(move);
+        undo.move = null;
+        applyMove(undo, getPieceAt(from), from, PackedMove.to(move),
+                PackedMove.isCastling(move), PackedMove.isEnPassant(move), PackedMove.promotionKind(move));
+    }
 
-            if (capturedPawn != null) {
-                if (capturedPawn.getColor() == PieceColor.WHITE) {
-                    lightPieces.remove(capturedPawn);
-                } else {
-                    darkPieces.remove(capturedPawn);
-                }
-                boardArray[capturedPawnPos.getRow()][capturedPawnPos.getColumn()] = null;
-            }
+    /**
+     * Take back the most recent move made with makeMove(int)
+     */
+    public void unmakeLastMove() {
+        revertMove(undoPool[--undoDepth]);
+    }
+
+    private void applyMove(MoveUndo undo, Piece piece, int from, int to,
+                           boolean castling, boolean enPassant, int promotionKind) {
+        int color = piece.getColor();
+        undo.movedPiece = piece;
+        undo.from = from;
+        undo.to = to;
+        undo.pieceHadMoved = piece.hasMoved();
+        undo.previousEnPassant = enPassantSquare;
+        undo.previousSideToMove = sideToMove;
+
+        // Find the captured piece; en passant takes the pawn beside the origin
+        int capturedSquare = enPassant ? Bitboards.square(Bitboards.column(to), Bitboards.row(from)) : to;
+        Piece capturedPiece = getPieceAt(capturedSquare);
+        undo.capturedPiece = capturedPiece;
+        undo.capturedSquare = capturedSquare;
+        undo.capturedIndex = -1;
+        if (capturedPiece != null) {
+            undo.capturedIndex = piecesOf(capturedPiece.getColor()).swapRemove(capturedPiece);
+            setSquare(capturedSquare, null);
         }
 
         // Special handling for castling moves
-        if (move.isCastlingMove()) {
-            int row = from.getRow();
+        undo.castlingRook = null;
+        if (castling) {
+            int row = Bitboards.row(from);
             // Determine if it's kingside or queenside castling
-            if (to.getColumn() > from.getColumn()) {  // Kingside
-                // Move the rook
-                Piece rook = getPiece(new Position(7, row));
-                Position rookNewPos = new Position(5, row);
-                boardArray[row][7] = null;  // Remove rook from old position
-                boardArray[row][5] = rook;  // Place rook in new position
-                rook.setPosition(rookNewPos);
-                rook.setHasMoved(true);
-            } else {  // Queenside
-                // Move the rook
-                Piece rook = getPiece(new Position(0, row));
-                Position rookNewPos = new Position(3, row);
-                boardArray[row][0] = null;  // Remove rook from old position
-                boardArray[row][3] = rook;  // Place rook in new position
-                rook.setPosition(rookNewPos);
+            boolean kingside = Bitboards.column(to) > Bitboards.column(from);
+            undo.rookFrom = Bitboards.square(kingside ? 7 : 0, row);
+            undo.rookTo = Bitboards.square(kingside ? 5 : 3, row);
+            Piece rook = getPieceAt(undo.rookFrom);
+            if (rook != null) {
+                undo.castlingRook = rook;
+                undo.rookHadMoved = rook.hasMoved();
+                setSquare(undo.rookFrom, null);  // Remove rook from old position
+                setSquare(undo.rookTo, rook);  // Place rook in new position
+                rook.setPosition(Position.ofSquare(undo.rookTo));
                 rook.setHasMoved(true);
             }
         }
 
         // Update the board array
-        boardArray[from.getRow()][from.getColumn()] = null;
-        boardArray[to.getRow()][to.getColumn()] = piece;
+        setSquare(from, null);
+        setSquare(to, piece);
 
         // Update the piece's position and move status
-        piece.setPosition(to);
+        piece.setPosition(Position.ofSquare(to));
         piece.setHasMoved(true);
 
         // Handle pawn promotion
-        if (move.isPromotion()) {
-            // Replace pawn with a queen at the destination
-            Queen queen = new Queen(piece.getColor(), to);
-
-            // Remove the pawn
-            if (piece.getColor() == PieceColor.WHITE) {
-                lightPieces.remove(piece);
-                lightPieces.add(queen);
-            } else {
-                darkPieces.remove(piece);
-                darkPieces.add(queen);
+        undo.promotedPiece = null;
+        if (promotionKind >= 0) {
+            // Replace the pawn at the destination, keeping its slot in the piece list
+            Piece promotedPiece = createPiece(promotionKind, color, Position.ofSquare(to));
+            PieceList ownList = piecesOf(color);
+            undo.promotedPiece = promotedPiece;
+            undo.promotionIndex = ownList.replace(piece, promotedPiece);
+            if (undo.promotionIndex < 0) {
+                ownList.append(promotedPiece);
             }
 
             // Update the board array
-            boardArray[to.getRow()][to.getColumn()] = queen;
+            setSquare(to, promotedPiece);
         }
 
-        // Add to move history
-        moveSequence.add(move);
-        return true;
+        // A double pawn push leaves the skipped square open to en passant for one move
+        boolean doublePush = piece.getKind() == PieceKind.PAWN && Math.abs(Bitboards.row(to) - Bitboards.row(from)) == 2;
+        enPassantSquare = doublePush ? (from + to) / 2 : -1;
+        sideToMove = PieceColor.opponent(color);
+    }
+
+    private void revertMove(MoveUndo undo) {
+        Piece piece = undo.movedPiece;
+        enPassantSquare = undo.previousEnPassant;
+        sideToMove = undo.previousSideToMove;
+
+        // Put the pawn back in place of the promoted piece
+        if (undo.promotedPiece != null) {
+            PieceList ownList = piecesOf(piece.getColor());
+            if (undo.promotionIndex >= 0) {
+                ownList.replace(undo.promotedPiece, piece);
+            } else {
+                ownList.swapRemove(undo.promotedPiece);
+            }
+        }
+
+        // Move the piece back
+        setSquare(undo.to, null);
+        setSquare(undo.from, piece);
+        piece.setPosition(Position.ofSquare(undo.from));
+        piece.setHasMoved(undo.pieceHadMoved);
+
+        // Move the castling rook back
+        if (undo.castlingRook != null) {
+            setSquare(undo.rookTo, null);
+            setSquare(undo.rookFrom, undo.castlingRook);
+            undo.castlingRook.setPosition(Position.ofSquare(undo.rookFrom));
+            undo.castlingRook.setHasMoved(undo.rookHadMoved);
+        }
+
+        // Restore the captured piece to its square and list slot
+        Piece captured = undo.capturedPiece;
+        if (captured != null) {
+            setSquare(undo.capturedSquare, captured);
+            if (undo.capturedIndex >= 0) {
+                piecesOf(captured.getColor()).restore(undo.capturedIndex, captured);
+            }
+        }
+    }
+
+    private static Piece createPiece(int kind, int color, Position position) {
+        switch (kind) {
+            case Bitboards.KNIGHT:
+                return new Knight(color, position);
+            case Bitboards.BISHOP:
+                return new Bishop(color, position);
+            case Bitboards.ROOK:
+                return new Rook(color, position);
+            default:
+                return new Queen(color, position);
+        }
+    }
+
+    /**
+     * Fill the list with every legal move for a side as packed ints
+     */
+    public void generateLegalMoves(int color, MoveList moves) {
+        MoveGenerator.generateLegalMoves(this, color, moves);
+    }
+
+    /**
+     * Check whether the piece on one square may legally move to another,
+     * promoting to a queen if a pawn reaches the last row
+     */
+    public boolean isLegal(Position from, Position to) {
+        return isLegal(from, to, Bitboards.QUEEN);
+    }
+
+    /**
+     * Check whether the piece on one square may legally move to another,
+     * in constant time and without generating other moves
+     *
+     * @param promotionKind kind a pawn promotes to (Bitboards.KNIGHT to QUEEN)
+     */
+    public boolean isLegal(Position from, Position to, int promotionKind) {
+        return findLegalMove(from, to, promotionKind) != PackedMove.NONE;
+    }
+
+    /**
+     * Get the packed legal move from one square to another, or PackedMove.NONE if there is none
+     */
+    public int findLegalMove(Position from, Position to, int promotionKind) {
+        if (!from.isValid() || !to.isValid()) {
+            return PackedMove.NONE;
+        }
+        return MoveGenerator.legalMove(this, from.getSquare(), to.getSquare(), promotionKind);
+    }
+
+    /**
+     * Convert a packed move into a Move that references this board's pieces
+     */
+    public Move toMove(int move) {
+        Position from = Position.ofSquare(PackedMove.from(move));
+        Position to = Position.ofSquare(PackedMove.to(move));
+        Piece piece = getPiece(from);
+
+        if (PackedMove.isCastling(move)) {
+            return Move.createCastling(from, to, piece);
+        }
+        if (PackedMove.isEnPassant(move)) {
+            return Move.createEnPassant(from, to, piece, getPiece(Position.of(to.getColumn(), from.getRow())));
+        }
+        if (PackedMove.isPromotion(move)) {
+            return Move.createPromotion(from, to, piece, getPiece(to), PackedMove.promotionKind(move));
+        }
+        return Move.createMove(from, to, piece, getPiece(to));
     }
 
     public List<Move> getAllLegalMoves(int color) {
         List<Move> legalMoves = new ArrayList<>();
-        List<Piece> pieces = color == PieceColor.WHITE ? lightPieces : darkPieces;
+        PieceList pieces = piecesOf(color);
 
-        for (Piece piece : pieces) {
-            legalMoves.addAll(piece.getLegalMoves(this));
+        for (int i = 0; i < pieces.size(); i++) {
+            legalMoves.addAll(pieces.get(i).getLegalMoves(this));
         }
 
         return legalMoves;
@@ -222,67 +486,181 @@ public class Board {
 
     public boolean isKingInCheck(int color) {
         King king = color == PieceColor.WHITE ? lightKing : darkKing;
-        Position kingPosition = king.getPosition();
-        List<Piece> opponentPieces = color == PieceColor.WHITE ? darkPieces : lightPieces;
-
-        for (Piece piece : opponentPieces) {
-            List<Position> attackPositions = piece.getAttackPositions(this);
-            if (attackPositions.contains(kingPosition)) {
-                return true;
-            }
+        if (king == null) {
+            return false;
         }
-        return false;
+        int kingSquare = Bitboards.square(king.getPosition());
+        return attackMap.isAttacked(kingSquare, PieceColor.opponent(color));
     }
 
-    public boolean isCheckmate(int color) {
-        if (!isKingInCheck(color)) {
-            return false;
+    /**
+     * Get the squares of all pieces of the given color that attack a square
+     */
+    public long attackersTo(int square, int byColor) {
+        return attackMap.getAttackersTo(square) & colorMasks[byColor];
+    }
+
+    /**
+     * Get the squares of all pieces of either color that attack a square
+     */
+    public long attackersOf(int square) {
+        return attackMap.getAttackersTo(square);
+    }
+
+    /**
+     * Get every square attacked by at least one piece of the given color
+     */
+    public long getAttackedSquares(int color) {
+        return attackMap.getColorAttacks(color);
+    }
+
+    /**
+     * Get the attackers of a square as if the board had the given occupancy,
+     * e.g. with the defending king lifted off so it cannot hide behind itself.
+     * Computed from the attack tables rather than the maintained attack map.
+     */
+    public long attackersTo(int square, int byColor, long occupancy) {
+        long[] masks = pieceMasks[byColor];
+        long rooksQueens = masks[Bitboards.ROOK] | masks[Bitboards.QUEEN];
+        long bishopsQueens = masks[Bitboards.BISHOP] | masks[Bitboards.QUEEN];
+
+        // A pawn of byColor attacks the square if a pawn of the other color there would attack it
+        return (Bitboards.PAWN_ATTACKS[PieceColor.opponent(byColor)][square] & masks[Bitboards.PAWN])
+                | (Bitboards.KNIGHT_ATTACKS[square] & masks[Bitboards.KNIGHT])
+                | (Bitboards.KING_ATTACKS[square] & masks[Bitboards.KING])
+                | (Bitboards.rookAttacks(square, occupancy) & rooksQueens)
+                | (Bitboards.bishopAttacks(square, occupancy) & bishopsQueens);
+    }
+
+    public boolean isAttacked(int square, int byColor) {
+        return attackMap.isAttacked(square, byColor);
+    }
+
+    /**
+     * Get the pin and check masks for a side, computed once per position
+     */
+    public LegalityMasks getLegalityMasks(int color) {
+        LegalityMasks masks = legalityCache[color];
+        if (masks == null || masks.getVersion() != positionVersion) {
+            masks = LegalityMasks.compute(this, color, positionVersion);
+            legalityCache[color] = masks;
         }
+        return masks;
+    }
 
-        List<Move> legalMoves = getAllLegalMoves(color);
-        return legalMoves.isEmpty();
+    /**
+     * Check whether a king can step to a square without being attacked there
+     */
+    public boolean isSafeKingDestination(King king, int square) {
+        int enemy = PieceColor.opponent(king.getColor());
+        long withoutKing = occupied & ~Bitboards.bit(Bitboards.square(king.getPosition()));
+        return attackersTo(square, enemy, withoutKing) == 0;
     }
 
-    public boolean isStalemate(int color) {
-        if (isKingInCheck(color)) {
-            return false;
+    public long getPieceMask(int color, int kind) {
+        return pieceMasks[color][kind];
+    }
+
+    public long getColorMask(int color) {
+        return colorMasks[color];
+    }
+
+    public long getOccupancy() {
+        return occupied;
+    }
+
+    /**
+     * Check whether a side can move at all, stopping at the first legal move found
+     */
+    public boolean hasAnyLegalMove(int color) {
+        return MoveGenerator.hasLegalMove(this, color);
+    }
+
+    /**
+     * Get check, legal-move and material status for a side, computed once and
+     * reused until a piece moves
+     */
+    public PositionStatus getStatus(int color) {
+        PositionStatus status = statusCache[color];
+        if (status == null || status.getVersion() != positionVersion) {
+            status = PositionStatus.compute(this, color, positionVersion);
+            statusCache[color] = status;
         }
+        return status;
+    }
+
+    public boolean isCheckmate(int color) {
+        return getStatus(color).isCheckmate();
+    }
 
-        List<Move> legalMoves = getAllLegalMoves(color);
-        return legalMoves.isEmpty();
+    public boolean isStalemate(int color) {
+        return getStatus(color).isStalemate();
     }
 
     public Move getLastMove() {
-        if (moveSequence.isEmpty()) {
-            return null;
-        }
-        return moveSequence.get(moveSequence.size() - 1);
+        return moveSequence.getLast();
     }
 
+    /**
+     * Get the moves played so far. The returned list is an immutable snapshot
+     * that shares storage with the board, so this does not copy the moves.
+     */
     public List<Move> getMoveHistory() {
-        return new ArrayList<>(moveSequence);
+        return moveSequence.snapshot();
     }
 
     // Check if there's a piece between two positions (for rook, bishop, queen movements)
     public boolean isPieceBetween(Position start, Position end) {
-        // Get direction of movement
-        int colDir = Integer.compare(end.getColumn(), start.getColumn());
-        int rowDir = Integer.compare(end.getRow(), start.getRow());
+        long between = Bitboards.BETWEEN[Bitboards.square(start)][Bitboards.square(end)];
+        return (between & occupied) != 0;
+    }
 
-        Position current = start;
+    // Put a piece (or null) on a square, keeping the bitboards and attack map in sync with the board array
+    private void setSquare(int square, Piece piece) {
+        int row = Bitboards.row(square);
+        int col = Bitboards.column(square);
+        long bit = Bitboards.bit(square);
+        positionVersion++;
+
+        // Sliders that see this square will have their rays lengthened or cut short
+        long affectedSliders = attackMap.getAttackersTo(square) & sliderMask();
+
+        Piece previous = boardArray[row][col];
+        if (previous != null) {
+            attackMap.removePiece(square, previous.getColor());
+            pieceMasks[previous.getColor()][Bitboards.kindOf(previous)] &= ~bit;
+            colorMasks[previous.getColor()] &= ~bit;
+            occupied &= ~bit;
+        }
 
-        // Move one step in the direction
-        current = new Position(current.getColumn() + colDir, current.getRow() + rowDir);
+        boardArray[row][col] = piece;
+        int pieceCode = PackedMove.pieceCode(piece);
+        pieceKey ^= Zobrist.piece(pieceCodes[square], square) ^ Zobrist.piece(pieceCode, square);
+        materialKey += MaterialKey.unit(pieceCode, square) - MaterialKey.unit(pieceCodes[square], square);
+        pieceCodes[square] = pieceCode;
+        if (piece != null) {
+            pieceMasks[piece.getColor()][Bitboards.kindOf(piece)] |= bit;
+            colorMasks[piece.getColor()] |= bit;
+            occupied |= bit;
+        }
 
-        // Check all positions between start and end (exclusive)
-        while (!current.equals(end)) {
-            if (getPiece(current) != null) {
-                return true;
-            }
-            current = new Position(current.getColumn() + colDir, current.getRow() + rowDir);
+        while (affectedSliders != 0) {
+            int sliderSquare = Bitboards.lowestSquare(affectedSliders);
+            affectedSliders &= affectedSliders - 1;
+            Piece slider = boardArray[Bitboards.row(sliderSquare)][Bitboards.column(sliderSquare)];
+            attackMap.updatePiece(sliderSquare, slider.getColor(),
+                    Bitboards.pieceAttacks(Bitboards.kindOf(slider), slider.getColor(), sliderSquare, occupied));
+        }
+
+        if (piece != null) {
+            attackMap.addPiece(square, piece.getColor(),
+                    Bitboards.pieceAttacks(Bitboards.kindOf(piece), piece.getColor(), square, occupied));
         }
+    }
 
-        return false;
+    private long sliderMask() {
+        return pieceMasks[0][Bitboards.BISHOP] | pieceMasks[0][Bitboards.ROOK] | pieceMasks[0][Bitboards.QUEEN]
+                | pieceMasks[1][Bitboards.BISHOP] | pieceMasks[1][Bitboards.ROOK] | pieceMasks[1][Bitboards.QUEEN];
     }
 
     // Clear the board for testing purposes
@@ -292,23 +670,83 @@ public class Board {
                 boardArray[row][col] = null;
             }
         }
-        lightPieces.clear();
-        darkPieces.clear();
-        moveSequence.clear();
+        for (int color = 0; color < 2; color++) {
+            for (int kind = 0; kind < Bitboards.KIND_COUNT; kind++) {
+                pieceMasks[color][kind] = 0L;
+            }
+            colorMasks[color] = 0L;
+        }
+        occupied = 0L;
+        attackMap.clear();
+        Arrays.fill(pieceCodes, 0);
+        enPassantSquare = -1;
+        sideToMove = PieceColor.WHITE;
+        pieceKey = 0L;
+        materialKey = 0L;
+        positionVersion++;
+        lightKing = null;
+        darkKing = null;
+        lightPieces.reset();
+        darkPieces.reset();
+        moveSequence.reset();
+    }
+
+    /**
+     * Replace the whole position. Pieces are given as packed piece codes per
+     * square (see PackedMove); castling rights use the Zobrist flags and decide
+     * which kings and corner rooks count as unmoved. Pawns off their starting
+     * row count as moved. The move history is cleared.
+     */
+    public void loadPosition(int[] squareCodes, int sideToMove, int castlingRights, int enPassantSquare) {
+        clearBoard();
+        for (int square = 0; square < 64; square++) {
+            int code = squareCodes[square];
+            if (code == 0) {
+                continue;
+            }
+            int color = PackedMove.codeColor(code);
+            int kind = PackedMove.codeKind(code);
+            Position position = Position.ofSquare(square);
+            Piece piece = kind == Bitboards.KING ? new King(color, position)
+                    : kind == Bitboards.PAWN ? new Pawn(color, position)
+                    : createPiece(kind, color, position);
+            piece.setHasMoved(!startsUnmoved(piece, castlingRights));
+            placePieceForTesting(piece);
+        }
+        this.sideToMove = sideToMove;
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    private static boolean startsUnmoved(Piece piece, int castlingRights) {
+        boolean white = piece.getColor() == PieceColor.WHITE;
+        int row = piece.getPosition().getRow();
+        int col = piece.getPosition().getColumn();
+        int kingside = white ? Zobrist.WHITE_KINGSIDE : Zobrist.BLACK_KINGSIDE;
+        int queenside = white ? Zobrist.WHITE_QUEENSIDE : Zobrist.BLACK_QUEENSIDE;
+        switch (piece.getKind()) {
+            case PAWN:
+                return row == (white ? 6 : 1);
+            case KING:
+                return (castlingRights & (kingside | queenside)) != 0;
+            case ROOK:
+                return (col == 7 && (castlingRights & kingside) != 0)
+                        || (col == 0 && (castlingRights & queenside) != 0);
+            default:
+                return false;
+        }
     }
 
     // Place a piece on the board for testing
     public void placePieceForTesting(Piece piece) {
-        Position pos = piece.getPosition();
-        boardArray[pos.getRow()][pos.getColumn()] = piece;
+        setSquare(piece.getPosition().getSquare(), piece);
 
         if (piece.getColor() == PieceColor.WHITE) {
-            lightPieces.add(piece);
+            lightPieces.append(piece);
             if (piece instanceof King) {
                 lightKing = (King) piece;
             }
         } else {
-            darkPieces.add(piece);
+            darkPieces.append(piece);
             if (piece instanceof King) {
                 darkKing = (King) piece;
             }
@@ -0,0 +1,117 @@
+package Model;
+
+/**
+ * Immutable copy of a board position, tagged with the number of plies played
+ * when it was taken. GameState publishes one after every move, so other
+ * threads (the view, the clock, spectators) can read a consistent position
+ * without locking or copying the live Board.
+ */
+public final class BoardSnapshot {
+    private final int version;
+    private final byte[] pieceCodes;
+    private final int sideToMove;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final long zobristKey;
+    private final long materialKey;
+    private final PositionStatus status;
+    private final int lastMoveFrom;
+    private final int lastMoveTo;
+
+    private BoardSnapshot(Board board, int version) {
+        this.version = version;
+        this.pieceCodes = new byte[64];
+        for (int square = 0; square < 64; square++) {
+            pieceCodes[square] = (byte) board.getPieceCode(square);
+        }
+        this.sideToMove = board.getSideToMove();
+        this.castlingRights = Zobrist.castlingRights(board);
+        this.enPassantSquare = board.getEnPassantSquare();
+        this.zobristKey = board.getZobristKey();
+        this.materialKey = board.getMaterialKey();
+        this.status = board.getStatus(sideToMove);
+
+        Move lastMove = board.getLastMove();
+        this.lastMoveFrom = lastMove == null ? -1 : lastMove.getOrigin().getSquare();
+        this.lastMoveTo = lastMove == null ? -1 : lastMove.getDestination().getSquare();
+    }
+
+    /**
+     * Take a snapshot of a board. Must be called by the thread that owns the board.
+     */
+    public static BoardSnapshot of(Board board, int version) {
+        return new BoardSnapshot(board, version);
+    }
+
+    // Plies played when the snapshot was taken; later snapshots have higher versions
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the packed piece code on a square (see PackedMove), 0 if empty
+     */
+    public int getPieceCode(int square) {
+        return pieceCodes[square];
+    }
+
+    public int getPieceCode(Position position) {
+        return pieceCodes[position.getSquare()];
+    }
+
+    // Kind of the piece on a square, or null if the square is empty
+    public PieceKind getPieceKind(Position position) {
+        int code = getPieceCode(position);
+        return code == 0 ? null : PieceKind.of(PackedMove.codeKind(code));
+    }
+
+    // Color of the piece on a square; only meaningful if the square is occupied
+    public int getPieceColor(Position position) {
+        return PackedMove.codeColor(getPieceCode(position));
+    }
+
+    public boolean isEmpty(Position position) {
+        return getPieceCode(position) == 0;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    // Castling rights as Zobrist.WHITE_KINGSIDE | ... flags
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    public long getMaterialKey() {
+        return materialKey;
+    }
+
+    // Whether the side to move is in check
+    public boolean isInCheck() {
+        return status.isInCheck();
+    }
+
+    // Check, mate and draw status for the side to move
+    public PositionStatus getStatus() {
+        return status;
+    }
+
+    // Origin square of the last move, or -1 if no move has been played
+    public int getLastMoveFrom() {
+        return lastMoveFrom;
+    }
+
+    // Destination square of the last move, or -1 if no move has been played
+    public int getLastMoveTo() {
+        return lastMoveTo;
+    }
+}
@@ -0,0 +1,172 @@
+package Model;
+
+import Model.pieces.King;
+
+/**
+ * Ways out of check, as square masks: where the king can step, which pieces
+ * can capture the checker, and which pieces can block its line. Built from
+ * the checker set and pin masks, so no candidate move is played on the board
+ * except the rare en passant capture.
+ */
+public final class CheckEvasions {
+
+    private CheckEvasions() {
+        // Utility class
+    }
+
+    /**
+     * Squares the king can move to without being attacked, including captures
+     */
+    public static long kingEscapes(Board board, int color) {
+        King king = board.getKing(color);
+        if (king == null || king.getPosition() == null) {
+            return 0L;
+        }
+
+        int kingSquare = king.getPosition().getSquare();
+        int enemy = PieceColor.opponent(color);
+        // Take the king off the board so a slider's line through it stays covered
+        long occupiedWithoutKing = board.getOccupancy() & ~Bitboards.bit(kingSquare);
+        long targets = Bitboards.KING_ATTACKS[kingSquare] & ~board.getColorMask(color);
+
+        long escapes = 0L;
+        while (targets != 0) {
+            int to = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            if (board.attackersTo(to, enemy, occupiedWithoutKing) == 0) {
+                escapes |= Bitboards.bit(to);
+            }
+        }
+        return escapes;
+    }
+
+    /**
+     * Squares of the pieces giving check
+     */
+    public static long checkers(Board board, int color) {
+        return board.getLegalityMasks(color).getCheckers();
+    }
+
+    /**
+     * Squares strictly between the king and a single sliding checker; empty
+     * for contact checks, double checks and no check
+     */
+    public static long blockSquares(Board board, int color) {
+        LegalityMasks legality = board.getLegalityMasks(color);
+        long checkers = legality.getCheckers();
+        if (!isSingle(checkers)) {
+            return 0L;
+        }
+        return Bitboards.BETWEEN[legality.getKingSquare()][Bitboards.lowestSquare(checkers)];
+    }
+
+    /**
+     * Squares of non-king pieces that can legally capture the single checker
+     */
+    public static long capturers(Board board, int color) {
+        LegalityMasks legality = board.getLegalityMasks(color);
+        long checkers = legality.getCheckers();
+        if (!isSingle(checkers)) {
+            return 0L;
+        }
+
+        int checkerSquare = Bitboards.lowestSquare(checkers);
+        long candidates = board.attackersTo(checkerSquare, color) & ~Bitboards.bit(legality.getKingSquare());
+        long result = 0L;
+        while (candidates != 0) {
+            int from = Bitboards.lowestSquare(candidates);
+            candidates &= candidates - 1;
+            if (legality.allows(from, checkerSquare)) {
+                result |= Bitboards.bit(from);
+            }
+        }
+        return result | enPassantCapturers(board, color, checkerSquare);
+    }
+
+    /**
+     * Squares of non-king pieces that can legally move onto the checking line
+     */
+    public static long blockers(Board board, int color) {
+        long block = blockSquares(board, color);
+        if (block == 0) {
+            return 0L;
+        }
+
+        LegalityMasks legality = board.getLegalityMasks(color);
+        long occupied = board.getOccupancy();
+        long result = 0L;
+
+        for (int kind = Bitboards.KNIGHT; kind <= Bitboards.QUEEN; kind++) {
+            long pieces = board.getPieceMask(color, kind);
+            while (pieces != 0) {
+                int from = Bitboards.lowestSquare(pieces);
+                pieces &= pieces - 1;
+                if (legality.restrict(from, Bitboards.pieceAttacks(kind, color, from, occupied) & block) != 0) {
+                    result |= Bitboards.bit(from);
+                }
+            }
+        }
+
+        // Pawns block by pushing, never by capturing onto an empty square
+        int forward = color == PieceColor.WHITE ? -8 : 8;
+        long pawns = board.getPieceMask(color, Bitboards.PAWN);
+        while (pawns != 0) {
+            int from = Bitboards.lowestSquare(pawns);
+            pawns &= pawns - 1;
+            int one = from + forward;
+            if (one < 0 || one >= 64 || (occupied & Bitboards.bit(one)) != 0) {
+                continue;
+            }
+            int two = one + forward;
+            long pushes = Bitboards.bit(one);
+            if (!board.getPieceAt(from).hasMoved() && two >= 0 && two < 64 && (occupied & Bitboards.bit(two)) == 0) {
+                pushes |= Bitboards.bit(two);
+            }
+            if (legality.restrict(from, pushes & block) != 0) {
+                result |= Bitboards.bit(from);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check whether a side in check has any way out
+     */
+    public static boolean canEvade(Board board, int color) {
+        return kingEscapes(board, color) != 0
+                || capturers(board, color) != 0
+                || blockers(board, color) != 0;
+    }
+
+    // Pawns that can take a checking pawn en passant, right after its double push
+    private static long enPassantCapturers(Board board, int color, int checkerSquare) {
+        int enPassantSquare = board.getEnPassantSquare();
+        int enemy = PieceColor.opponent(color);
+        if (enPassantSquare < 0 || board.getPieceCode(checkerSquare) != PackedMove.pieceCode(enemy, Bitboards.PAWN)
+                || Bitboards.column(enPassantSquare) != Bitboards.column(checkerSquare)
+                || Math.abs(enPassantSquare - checkerSquare) != 8) {
+            return 0L;
+        }
+
+        long result = 0L;
+        long pawns = Bitboards.PAWN_ATTACKS[enemy][enPassantSquare] & board.getPieceMask(color, Bitboards.PAWN);
+        while (pawns != 0) {
+            int from = Bitboards.lowestSquare(pawns);
+            pawns &= pawns - 1;
+            // En passant lifts two pawns off one row, which the pin masks cannot see
+            int move = PackedMove.encode(from, enPassantSquare, PackedMove.pieceCode(color, Bitboards.PAWN),
+                    PackedMove.pieceCode(enemy, Bitboards.PAWN), -1, PackedMove.FLAG_EN_PASSANT);
+            board.makeMove(move);
+            boolean legal = !board.isKingInCheck(color);
+            board.unmakeLastMove();
+            if (legal) {
+                result |= Bitboards.bit(from);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isSingle(long squares) {
+        return squares != 0 && (squares & (squares - 1)) == 0;
+    }
+}
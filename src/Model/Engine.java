@@ -0,0 +1,530 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Game-playing search: negamax alpha-beta with iterative deepening. Each
+ * iteration searches one ply deeper than the last and tries the previous
+ * principal variation first, and the search stops at the depth, node or time
+ * limit, keeping the result of the deepest completed iteration.
+ *
+ * Results are cached in a transposition table, which later iterations and
+ * later searches use for cutoffs and to try the best move first. Engines may
+ * share one table. Moves come from a MovePicker per ply, ordered by MoveOrdering.
+ *
+ * At the horizon a quiescence search plays out captures and promotions until
+ * the position is quiet, so the evaluation never stops mid-exchange. It skips
+ * captures that static exchange evaluation says lose material and tries the
+ * best exchanges first.
+ *
+ * With more than one thread the engine runs Lazy SMP: helper threads search
+ * the same root on their own board copies, skipping depths in staggered
+ * patterns so they run ahead of the main thread, and all threads share the
+ * transposition table. Helpers only feed the table; the main thread decides
+ * when to stop and reports its own result.
+ *
+ * The search never changes the caller's board. One search at a time per
+ * engine; stop() may be called from any thread.
+ */
+public final class Engine {
+    public static final int INFINITE = 32000;
+    public static final int MATE = 31000;
+    // Scores beyond this are forced mates
+    public static final int MATE_BOUND = MATE - 2 * SearchLimits.MAX_DEPTH;
+
+    // Full-width plies plus room for the quiescence search beyond them
+    private static final int MAX_PLY = 2 * SearchLimits.MAX_DEPTH;
+    // More than the legal moves in any position
+    private static final int MAX_MOVES = 256;
+    // How often, in nodes, the clock is read
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    // Helper i skips iterations where ((depth + SKIP_PHASE[j]) / SKIP_SIZE[j]) is odd, j = (i - 1) % 20
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final TranspositionTable table;
+    private final List<Searcher> searchers = new ArrayList<>();
+    private ExecutorService helperPool;
+
+    private volatile boolean stopRequested;
+    // Set by the main thread when it is done, to stop the helpers
+    private volatile boolean searchFinished;
+
+    public Engine() {
+        this(new TranspositionTable());
+    }
+
+    /**
+     * @param table transposition table, which may be shared with other engines
+     */
+    public Engine(TranspositionTable table) {
+        this.table = table;
+        searchers.add(new Searcher(0));
+    }
+
+    /**
+     * Set the number of search threads, including the calling thread
+     */
+    public void setThreads(int threads) {
+        threads = Math.max(1, threads);
+        if (threads == searchers.size()) {
+            return;
+        }
+        shutdown();
+        while (searchers.size() > threads) {
+            searchers.remove(searchers.size() - 1);
+        }
+        while (searchers.size() < threads) {
+            searchers.add(new Searcher(searchers.size()));
+        }
+    }
+
+    public int getThreads() {
+        return searchers.size();
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Search a position for the side to move. The first iteration always
+     * completes, so a legal position with moves always gets a best move.
+     * The node limit applies to the main thread's nodes.
+     *
+     * @return the result of the deepest iteration the main thread completed
+     */
+    public SearchResult search(Board position, SearchLimits limits) {
+        return search(position, limits, new long[0]);
+    }
+
+    /**
+     * Search a position reached in a game. A move that repeats any position
+     * of the game is scored as a draw, as are repeats within the search.
+     *
+     * @param previousPositions Zobrist keys of the game's positions before this one
+     *                          that could still repeat, oldest first
+     */
+    public SearchResult search(Board position, SearchLimits limits, long[] previousPositions) {
+        long start = System.nanoTime();
+        stopRequested = false;
+        searchFinished = false;
+        table.newSearch();
+
+        // Copy the board for every thread here, on the caller's thread
+        for (Searcher searcher : searchers) {
+            searcher.prepare(position, limits, start, previousPositions);
+        }
+
+        List<Future<?>> helpers = new ArrayList<>();
+        if (searchers.size() > 1) {
+            if (helperPool == null) {
+                helperPool = Executors.newFixedThreadPool(searchers.size() - 1, runnable -> {
+                    Thread thread = new Thread(runnable, "Search helper");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            for (Searcher helper : searchers.subList(1, searchers.size())) {
+                helpers.add(helperPool.submit(helper::iterate));
+            }
+        }
+
+        Searcher main = searchers.get(0);
+        main.iterate();
+
+        searchFinished = true;
+        for (Future<?> helper : helpers) {
+            try {
+                helper.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+
+        long nodes = 0;
+        for (Searcher searcher : searchers) {
+            nodes += searcher.nodes;
+        }
+        int bestMove = main.previousPv.length > 0 ? main.previousPv[0] : PackedMove.NONE;
+        double branchingFactor = main.previousIterationNodes == 0 ? 0
+                : (double) main.lastIterationNodes / main.previousIterationNodes;
+        return new SearchResult(bestMove, main.bestScore, main.completedDepth, nodes,
+                System.nanoTime() - start, main.previousPv, branchingFactor);
+    }
+
+    /**
+     * Ask a running search to stop; it returns the best move found so far
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Release the helper threads; they are started again by the next search
+     */
+    public void shutdown() {
+        if (helperPool != null) {
+            helperPool.shutdown();
+            helperPool = null;
+        }
+    }
+
+    // Mate scores are stored as distance from the stored position, not from the root
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * One search thread's state: its board copy and per-ply buffers. Searcher 0
+     * is the main thread; the others are helpers.
+     */
+    private final class Searcher {
+        private final int index;
+        private final MoveList[] moveLists = new MoveList[MAX_PLY];
+        // Triangular principal variation table: row ply holds the best line from that ply
+        private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+        private final int[] pvLength = new int[MAX_PLY];
+        // Zobrist key of the position at each ply, for repetition detection
+        private final long[] keys = new long[MAX_PLY];
+        // Orders the main search's moves at each ply
+        private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+        // Exchange score of each move in the quiescence move list at each ply
+        private final int[][] captureScores = new int[MAX_PLY][];
+        // Quiet moves searched at each ply without a cutoff, for history updates
+        private final int[][] failedQuiets = new int[MAX_PLY][];
+        // Move played at each ply, for countermoves
+        private final int[] playedMoves = new int[MAX_PLY];
+        private final MoveOrdering ordering = new MoveOrdering(MAX_PLY);
+
+        private Board board;
+        private long[] previousPositions;
+        private int maxDepth;
+        private long start;
+        private long nodeLimit;
+        private long deadline;
+        private int[] previousPv;
+        private int bestScore;
+        private long nodes;
+        private int completedDepth;
+        // Nodes searched by the last two completed iterations, for the branching factor
+        private long lastIterationNodes;
+        private long previousIterationNodes;
+        private boolean aborted;
+
+        Searcher(int index) {
+            this.index = index;
+            for (int ply = 0; ply < MAX_PLY; ply++) {
+                moveLists[ply] = new MoveList();
+                pickers[ply] = new MovePicker(ordering, MAX_MOVES);
+                captureScores[ply] = new int[MAX_MOVES];
+                failedQuiets[ply] = new int[MAX_MOVES];
+            }
+        }
+
+        void prepare(Board position, SearchLimits limits, long start, long[] previousPositions) {
+            this.board = new Board(position);
+            this.previousPositions = previousPositions;
+            this.maxDepth = limits.getDepth();
+            this.start = start;
+            this.nodeLimit = limits.getNodes();
+            this.deadline = limits.getMillis() == Long.MAX_VALUE ? Long.MAX_VALUE
+                    : start + limits.getMillis() * 1_000_000L;
+            this.previousPv = new int[0];
+            this.bestScore = 0;
+            this.nodes = 0;
+            this.completedDepth = 0;
+            this.lastIterationNodes = 0;
+            this.previousIterationNodes = 0;
+            this.aborted = false;
+            ordering.newSearch();
+            keys[0] = board.getZobristKey();
+        }
+
+        void iterate() {
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                if (index > 0 && skipsDepth(depth)) {
+                    continue;
+                }
+
+                long nodesBefore = nodes;
+                int score = negamax(depth, 0, -INFINITE, INFINITE, true);
+                if (aborted) {
+                    break;
+                }
+                completedDepth = depth;
+                previousIterationNodes = lastIterationNodes;
+                lastIterationNodes = nodes - nodesBefore;
+                bestScore = score;
+                previousPv = extendPv(Arrays.copyOf(pvTable[0], pvLength[0]), depth);
+
+                // No legal move, or a mate found within the full-width horizon: deeper will not change it
+                if (previousPv.length == 0 || (Math.abs(score) >= MATE_BOUND && MATE - Math.abs(score) <= depth)) {
+                    break;
+                }
+                // The next iteration takes several times longer than this one; don't start what can't finish
+                if (index == 0 && deadline != Long.MAX_VALUE
+                        && System.nanoTime() - start > (deadline - start) / 2) {
+                    break;
+                }
+            }
+        }
+
+        private boolean skipsDepth(int depth) {
+            int pattern = (index - 1) % SKIP_SIZE.length;
+            return ((depth + SKIP_PHASE[pattern]) / SKIP_SIZE[pattern]) % 2 == 1;
+        }
+
+        private int negamax(int depth, int ply, int alpha, int beta, boolean onPv) {
+            pvLength[ply] = ply;
+            if (ply > 0 && (isRepetition(ply) || MaterialKey.isInsufficientMaterial(board.getMaterialKey()))) {
+                return 0;
+            }
+            if (depth == 0) {
+                return quiescence(ply, alpha, beta);
+            }
+
+            nodes++;
+            if (shouldStop()) {
+                aborted = true;
+                return 0;
+            }
+
+            // A result from an equal or deeper search can settle this node; its move is tried first either way
+            long entry = table.probe(keys[ply]);
+            int hashMove = PackedMove.NONE;
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && score >= beta)
+                            || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+
+            int color = board.getSideToMove();
+            int pvMove = onPv && ply < previousPv.length ? previousPv[ply] : PackedMove.NONE;
+            int previousMove = ply > 0 ? playedMoves[ply - 1] : PackedMove.NONE;
+            MovePicker picker = pickers[ply];
+            picker.reset(board, color, pvMove != PackedMove.NONE ? pvMove : hashMove, ply, previousMove);
+
+            int[] quiets = failedQuiets[ply];
+            int quietCount = 0;
+            int originalAlpha = alpha;
+            int bestScore = -INFINITE;
+            int bestMove = PackedMove.NONE;
+            int legalMoves = 0;
+            int move;
+            while ((move = picker.next()) != PackedMove.NONE) {
+                legalMoves++;
+                playedMoves[ply] = move;
+                board.makeMove(move);
+                keys[ply + 1] = board.getZobristKey();
+                int score = -negamax(depth - 1, ply + 1, -beta, -alpha, pvMove != PackedMove.NONE && move == pvMove);
+                board.unmakeLastMove();
+                if (aborted) {
+                    return 0;
+                }
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (score > alpha) {
+                        alpha = score;
+                        bestMove = move;
+                        updatePv(ply, move);
+                        if (alpha >= beta) {
+                            if (MoveOrdering.isQuiet(move)) {
+                                ordering.recordCutoff(move, ply, depth, previousMove, quiets, quietCount);
+                            }
+                            break;
+                        }
+                    }
+                }
+                if (MoveOrdering.isQuiet(move)) {
+                    quiets[quietCount++] = move;
+                }
+            }
+
+            if (legalMoves == 0) {
+                // Mated (prefer the longest defence) or stalemated
+                return board.isKingInCheck(color) ? -MATE + ply : 0;
+            }
+
+            int bound = bestScore >= beta ? TranspositionTable.LOWER
+                    : alpha > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+            table.store(keys[ply], bestMove, scoreToTable(bestScore, ply), depth, bound);
+            return bestScore;
+        }
+
+        // Search captures and promotions only, until the side to move can stand pat; evade all checks
+        private int quiescence(int ply, int alpha, int beta) {
+            pvLength[ply] = ply;
+            nodes++;
+            if (shouldStop()) {
+                aborted = true;
+                return 0;
+            }
+            if (ply == MAX_PLY - 1) {
+                return Evaluation.evaluate(board);
+            }
+
+            int color = board.getSideToMove();
+            boolean inCheck = board.isKingInCheck(color);
+            int bestScore = -INFINITE;
+            if (!inCheck) {
+                // Stand pat: the side to move can usually do at least as well as doing nothing
+                bestScore = Evaluation.evaluate(board);
+                if (bestScore >= beta) {
+                    return bestScore;
+                }
+                alpha = Math.max(alpha, bestScore);
+            }
+
+            MoveList moves = moveLists[ply];
+            moves.clear();
+            MoveGenerator.generate(board, color,
+                    inCheck ? MoveGenerator.ALL : MoveGenerator.CAPTURES | MoveGenerator.PROMOTIONS, moves);
+            if (moves.isEmpty()) {
+                return inCheck ? -MATE + ply : bestScore;
+            }
+
+            int[] scores = captureScores[ply];
+            for (int i = 0; i < moves.size(); i++) {
+                scores[i] = StaticExchange.evaluate(board, moves.get(i));
+            }
+
+            for (int i = 0; i < moves.size(); i++) {
+                // Selection sort as we go: most cutoffs come from the first move or two
+                int best = i;
+                for (int j = i + 1; j < moves.size(); j++) {
+                    if (scores[j] > scores[best]) {
+                        best = j;
+                    }
+                }
+                moves.swap(i, best);
+                int score = scores[best];
+                scores[best] = scores[i];
+                scores[i] = score;
+
+                // The rest all lose material; out of check they cannot beat standing pat
+                if (!inCheck && score < 0) {
+                    break;
+                }
+
+                int move = moves.get(i);
+                board.makeMove(move);
+                int result = -quiescence(ply + 1, -beta, -alpha);
+                board.unmakeLastMove();
+                if (aborted) {
+                    return 0;
+                }
+
+                if (result > bestScore) {
+                    bestScore = result;
+                    if (result > alpha) {
+                        alpha = result;
+                        updatePv(ply, move);
+                        if (alpha >= beta) {
+                            break;
+                        }
+                    }
+                }
+            }
+            return bestScore;
+        }
+
+        // A table cutoff ends the PV early; continue it with the stored best moves while they are legal
+        private int[] extendPv(int[] pv, int depth) {
+            if (pv.length == 0 || pv.length >= depth) {
+                return pv;
+            }
+
+            int[] extended = Arrays.copyOf(pv, depth);
+            int length = 0;
+            while (length < pv.length) {
+                board.makeMove(pv[length++]);
+            }
+            while (length < depth) {
+                int move = TranspositionTable.move(table.probe(board.getZobristKey()));
+                if (move == PackedMove.NONE
+                        || MoveGenerator.legalMove(board, PackedMove.from(move), PackedMove.to(move),
+                                PackedMove.promotionKind(move)) != move) {
+                    break;
+                }
+                board.makeMove(move);
+                extended[length++] = move;
+            }
+            for (int i = 0; i < length; i++) {
+                board.unmakeLastMove();
+            }
+            return Arrays.copyOf(extended, length);
+        }
+
+        private void updatePv(int ply, int move) {
+            pvTable[ply][ply] = move;
+            int childLength = pvLength[ply + 1];
+            System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, childLength - (ply + 1));
+            pvLength[ply] = Math.max(childLength, ply + 1);
+        }
+
+        // A position seen earlier on the current line or in the game, with the same side to move, counts as a draw
+        private boolean isRepetition(int ply) {
+            for (int earlier = ply - 2; earlier >= 0; earlier -= 2) {
+                if (keys[earlier] == keys[ply]) {
+                    return true;
+                }
+            }
+            // The last game position is one ply before the root
+            for (int earlier = previousPositions.length - 2 + ply % 2; earlier >= 0; earlier -= 2) {
+                if (previousPositions[earlier] == keys[ply]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean shouldStop() {
+            // Helpers run until the main thread is done
+            if (index > 0) {
+                return searchFinished || stopRequested;
+            }
+            // The first iteration always finishes so there is a move to play
+            if (completedDepth == 0) {
+                return false;
+            }
+            if (stopRequested || nodes >= nodeLimit) {
+                return true;
+            }
+            return nodes % TIME_CHECK_INTERVAL == 0 && System.nanoTime() >= deadline;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package Model;
+
+/**
+ * Measures how search time to a fixed depth scales with the number of
+ * threads. Each thread count searches the perft reference positions from an
+ * empty transposition table; the report gives the total time, nodes per
+ * second and speedup over one thread.
+ *
+ * Run with: java Model.EngineBenchmark [depth] [maxThreads] [hashMB]
+ */
+public final class EngineBenchmark {
+
+    private EngineBenchmark() {
+        // Utility class
+    }
+
+    /**
+     * Time to search every reference position to a depth, in nanoseconds, with the node total
+     *
+     * @return {nanos, nodes}
+     */
+    public static long[] timeToDepth(int depth, int threads, int hashMegabytes) {
+        Engine engine = new Engine(new TranspositionTable(hashMegabytes));
+        engine.setThreads(threads);
+        long nanos = 0;
+        long nodes = 0;
+        try {
+            for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+                engine.getTranspositionTable().clear();
+                SearchResult result = engine.search(Fen.toBoard(position.getFen()), SearchLimits.depth(depth));
+                nanos += result.getNanos();
+                nodes += result.getNodes();
+            }
+        } finally {
+            engine.shutdown();
+        }
+        return new long[]{nanos, nodes};
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int hashMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        // Warm up the JIT so the single-thread baseline is not penalized
+        for (int pass = 0; pass < 3; pass++) {
+            timeToDepth(Math.min(depth, 5), 1, hashMegabytes);
+        }
+
+        System.out.printf("Time to depth %d, %d cores available%n", depth, Runtime.getRuntime().availableProcessors());
+        long baseline = 0;
+        // 1, 2, 4, ... threads, ending with maxThreads
+        for (int step = 1; ; step *= 2) {
+            int threads = Math.min(step, maxThreads);
+            long[] run = timeToDepth(depth, threads, hashMegabytes);
+            if (threads == 1) {
+                baseline = run[0];
+            }
+            System.out.printf("%3d threads  %,8d ms  %,12d nps  speedup %.2f%n", threads, run[0] / 1_000_000,
+                    (long) (run[1] * 1_000_000_000.0 / run[0]), (double) baseline / run[0]);
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
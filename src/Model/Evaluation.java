@@ -0,0 +1,149 @@
+package Model;
+
+/**
+ * Static evaluation for the search: material plus piece-square tables, with
+ * the king table blended from middlegame to endgame as pieces come off.
+ * Scores are in centipawns from the point of view of the side to move.
+ */
+public final class Evaluation {
+    // Indexed by Bitboards kind
+    private static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 20000};
+
+    // Game phase weight of each kind; 24 with all pieces on the board
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+    private static final int MAX_PHASE = 24;
+
+    // Tables are from white's point of view, indexed by square (a8 = 0); black mirrors the row
+    private static final int[] PAWN_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    private static final int[] KING_MIDDLEGAME_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int[] KING_ENDGAME_TABLE = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[][] PIECE_TABLES = {
+            PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE
+    };
+
+    private Evaluation() {
+        // Utility class
+    }
+
+    /**
+     * Material value of a piece kind in centipawns, shared with static exchange and move ordering
+     *
+     * @param kind Bitboards kind, PAWN to KING
+     */
+    public static int pieceValue(int kind) {
+        return PIECE_VALUES[kind];
+    }
+
+    /**
+     * Evaluate a position for the side to move
+     */
+    public static int evaluate(Board board) {
+        int phase = 0;
+        for (int kind = Bitboards.KNIGHT; kind <= Bitboards.QUEEN; kind++) {
+            phase += PHASE_WEIGHTS[kind] * Long.bitCount(board.getPieceMask(PieceColor.WHITE, kind)
+                    | board.getPieceMask(PieceColor.BLACK, kind));
+        }
+        phase = Math.min(phase, MAX_PHASE);
+
+        int score = evaluateSide(board, PieceColor.WHITE, phase) - evaluateSide(board, PieceColor.BLACK, phase);
+        return board.getSideToMove() == PieceColor.WHITE ? score : -score;
+    }
+
+    private static int evaluateSide(Board board, int color, int phase) {
+        // Tables are laid out for white; flip the row for black
+        int flip = color == PieceColor.WHITE ? 0 : 56;
+        int score = 0;
+
+        for (int kind = Bitboards.PAWN; kind <= Bitboards.QUEEN; kind++) {
+            int[] table = PIECE_TABLES[kind];
+            long pieces = board.getPieceMask(color, kind);
+            while (pieces != 0) {
+                int square = Bitboards.lowestSquare(pieces);
+                pieces &= pieces - 1;
+                score += PIECE_VALUES[kind] + table[square ^ flip];
+            }
+        }
+
+        long king = board.getPieceMask(color, Bitboards.KING);
+        if (king != 0) {
+            int square = Bitboards.lowestSquare(king) ^ flip;
+            score += (KING_MIDDLEGAME_TABLE[square] * phase + KING_ENDGAME_TABLE[square] * (MAX_PHASE - phase))
+                    / MAX_PHASE;
+        }
+        return score;
+    }
+}
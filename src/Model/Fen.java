@@ -0,0 +1,123 @@
+package Model;
+
+/**
+ * Reads positions in Forsyth-Edwards Notation, e.g. the starting position
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1".
+ * The move counters are optional and ignored.
+ */
+public final class Fen {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "pnbrqk";
+
+    private Fen() {
+        // Utility class
+    }
+
+    /**
+     * Create a new board holding a FEN position
+     *
+     * @throws IllegalArgumentException if the text is not a valid FEN position
+     */
+    public static Board toBoard(String fen) {
+        Board board = new Board();
+        load(board, fen);
+        return board;
+    }
+
+    /**
+     * Replace a board's position with a FEN position
+     *
+     * @throws IllegalArgumentException if the text is not a valid FEN position
+     */
+    public static void load(Board board, String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Incomplete FEN: " + fen);
+        }
+
+        int[] squareCodes = parsePlacement(fields[0], fen);
+        int sideToMove = parseSideToMove(fields[1], fen);
+        int castlingRights = parseCastlingRights(fields[2], fen);
+        int enPassantSquare = parseEnPassantSquare(fields[3], fen);
+
+        board.loadPosition(squareCodes, sideToMove, castlingRights, enPassantSquare);
+    }
+
+    private static int[] parsePlacement(String placement, String fen) {
+        String[] rows = placement.split("/");
+        if (rows.length != 8) {
+            throw new IllegalArgumentException("FEN needs 8 ranks: " + fen);
+        }
+
+        int[] squareCodes = new int[64];
+        for (int row = 0; row < 8; row++) {
+            int column = 0;
+            for (char c : rows[row].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    column += c - '0';
+                    continue;
+                }
+                int kind = PIECE_LETTERS.indexOf(Character.toLowerCase(c));
+                if (kind < 0 || column >= 8) {
+                    throw new IllegalArgumentException("Bad rank '" + rows[row] + "' in FEN: " + fen);
+                }
+                int color = Character.isUpperCase(c) ? PieceColor.WHITE : PieceColor.BLACK;
+                squareCodes[Bitboards.square(column, row)] = PackedMove.pieceCode(color, kind);
+                column++;
+            }
+            if (column != 8) {
+                throw new IllegalArgumentException("Bad rank '" + rows[row] + "' in FEN: " + fen);
+            }
+        }
+        return squareCodes;
+    }
+
+    private static int parseSideToMove(String field, String fen) {
+        switch (field) {
+            case "w":
+                return PieceColor.WHITE;
+            case "b":
+                return PieceColor.BLACK;
+            default:
+                throw new IllegalArgumentException("Bad side to move in FEN: " + fen);
+        }
+    }
+
+    private static int parseCastlingRights(String field, String fen) {
+        if (field.equals("-")) {
+            return 0;
+        }
+        int rights = 0;
+        for (char c : field.toCharArray()) {
+            switch (c) {
+                case 'K':
+                    rights |= Zobrist.WHITE_KINGSIDE;
+                    break;
+                case 'Q':
+                    rights |= Zobrist.WHITE_QUEENSIDE;
+                    break;
+                case 'k':
+                    rights |= Zobrist.BLACK_KINGSIDE;
+                    break;
+                case 'q':
+                    rights |= Zobrist.BLACK_QUEENSIDE;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Bad castling rights in FEN: " + fen);
+            }
+        }
+        return rights;
+    }
+
+    private static int parseEnPassantSquare(String field, String fen) {
+        if (field.equals("-")) {
+            return -1;
+        }
+        if (field.length() != 2 || field.charAt(0) < 'a' || field.charAt(0) > 'h'
+                || (field.charAt(1) != '3' && field.charAt(1) != '6')) {
+            throw new IllegalArgumentException("Bad en passant square in FEN: " + fen);
+        }
+        return Bitboards.square(field.charAt(0) - 'a', 8 - (field.charAt(1) - '0'));
+    }
+}
@@ -1,12 +1,15 @@
 package Model;
 
-import java.util.List;
-
 /**
  * Represents the current state of a chess game, including board position,
  * player turns, game history, timers, and end conditions.
  */
 public class GameState {
+    // Position keys kept for repetition checks; the game ends by the 50-move rule
+    // before more than 100 reversible plies pile up, so a 128-entry ring is enough
+    private static final int HISTORY_SIZE = 128;
+    private static final int HISTORY_MASK = HISTORY_SIZE - 1;
+
     private Board chessBoard;
     private int currentPlayerColor;
     private boolean gameOver;
@@ -16,6 +19,11 @@ public class GameState {
     private Clock whiteTimer;
     private Clock blackTimer;
     private boolean timedGame;
+    private final long[] positionHistory = new long[HISTORY_SIZE];
+    private int historyPly;
+
+    // Latest immutable copy of the board, replaced after every move for other threads to read
+    private volatile BoardSnapshot snapshot;
 
     /**
      * Constructs a new chess game state with default settings.
@@ -31,6 +39,8 @@ public class GameState {
         this.whiteTimer = new Clock(0, 15, 0);
         this.blackTimer = new Clock(0, 15, 0);
         this.timedGame = false;
+        resetPositionHistory();
+        publishSnapshot();
     }
 
     /**
@@ -56,6 +66,16 @@ public class GameState {
         return chessBoard;
     }
 
+    /**
+     * Gets the latest published snapshot of the board. Safe to call from any
+     * thread; the snapshot never changes, and a newer one replaces it after each move.
+     *
+     * @return The most recent board snapshot
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     /**
      * Gets the color of the player whose turn it is.
      *
@@ -166,7 +186,7 @@ public class GameState {
         }
 
         // Update move counters
-        if (move.getMovingPiece().getType().equals("Pawn") || move.getTakenPiece() != null) {
+        if (move.getMovingPiece().getKind() == PieceKind.PAWN || move.getTakenPiece() != null) {
             nonCaptureMoveCounter = 0;
         } else {
             nonCaptureMoveCounter++;
@@ -180,6 +200,11 @@ public class GameState {
         // Switch active player
         currentPlayerColor = PieceColor.opponent(currentPlayerColor);
 
+        // Remember the new position for repetition checks
+        historyPly++;
+        positionHistory[historyPly & HISTORY_MASK] = chessBoard.getZobristKey();
+        publishSnapshot();
+
         // Check game end conditions
         checkEndConditions();
 
@@ -190,60 +215,104 @@ public class GameState {
      * Checks various endgame conditions.
      */
     private void checkEndConditions() {
+        // Check, legal moves and material are worked out once for the new position
+        PositionStatus status = chessBoard.getStatus(currentPlayerColor);
+
         // Check for checkmate
-        if (chessBoard.isCheckmate(currentPlayerColor)) {
+        if (status.isCheckmate()) {
             gameOver = true;
             int winner = PieceColor.opponent(currentPlayerColor);
             result = PieceColor.colorName(winner) + " wins by checkmate";
         }
         // Check for stalemate
-        else if (chessBoard.isStalemate(currentPlayerColor)) {
+        else if (status.isStalemate()) {
             gameOver = true;
             result = "Draw by stalemate";
         }
+        // Check for fivefold repetition, which ends the game without a claim
+        else if (getRepetitionCount() >= 5) {
+            gameOver = true;
+            result = "Draw by fivefold repetition";
+        }
         // Check for 50-move rule
         else if (nonCaptureMoveCounter >= 100) { // 50 moves = 100 half-moves
             gameOver = true;
             result = "Draw by 50-move rule";
         }
-        // Check for insufficient material (simplified implementation)
-        else if (isInsufficientMaterial()) {
+        // Check for insufficient material
+        else if (status.isInsufficientMaterial()) {
             gameOver = true;
             result = "Draw by insufficient material";
         }
     }
 
     /**
-     * Checks if there is insufficient material for checkmate.
-     * Simplified version that only checks the most common cases.
+     * Counts how many times the current position has occurred, including now.
+     * Only positions since the last pawn move or capture can repeat it, and
+     * only those with the same side to move, so every other ply is compared.
      *
-     * @return True if there is insufficient material
+     * @return The number of occurrences of the current position
      */
-    private boolean isInsufficientMaterial() {
-        // Get both player's pieces
-        List<Piece> whitePieces = chessBoard.getPiecesByColor(PieceColor.WHITE);
-        List<Piece> blackPieces = chessBoard.getPiecesByColor(PieceColor.BLACK);
-
-        // King vs King
-        if (whitePieces.size() == 1 && blackPieces.size() == 1) {
-            return true;
+    public int getRepetitionCount() {
+        long currentKey = positionHistory[historyPly & HISTORY_MASK];
+        int window = Math.min(nonCaptureMoveCounter, HISTORY_SIZE - 1);
+        int oldestPly = Math.max(historyPly - window, 0);
+        int count = 1;
+        for (int ply = historyPly - 2; ply >= oldestPly; ply -= 2) {
+            if (positionHistory[ply & HISTORY_MASK] == currentKey) {
+                count++;
+            }
         }
+        return count;
+    }
 
-        // King + Knight vs King or King + Bishop vs King
-        if ((whitePieces.size() == 2 && blackPieces.size() == 1) ||
-                (whitePieces.size() == 1 && blackPieces.size() == 2)) {
+    /**
+     * Gets the keys of the earlier positions the game could still repeat:
+     * those since the last pawn move or capture, oldest first, not including
+     * the current position.
+     *
+     * @return Zobrist keys of the earlier repeatable positions
+     */
+    public long[] getRepetitionHistory() {
+        int window = Math.min(nonCaptureMoveCounter, HISTORY_SIZE - 1);
+        int oldestPly = Math.max(historyPly - window, 0);
+        long[] keys = new long[historyPly - oldestPly];
+        for (int ply = oldestPly; ply < historyPly; ply++) {
+            keys[ply - oldestPly] = positionHistory[ply & HISTORY_MASK];
+        }
+        return keys;
+    }
 
-            List<Piece> sideWithTwoPieces = (whitePieces.size() == 2) ? whitePieces : blackPieces;
+    /**
+     * Checks if the current player may claim a draw by threefold repetition.
+     *
+     * @return True if the current position has occurred at least three times
+     */
+    public boolean canClaimThreefoldRepetition() {
+        return !gameOver && getRepetitionCount() >= 3;
+    }
 
-            // Check if second piece is either Knight or Bishop
-            for (Piece piece : sideWithTwoPieces) {
-                if (!piece.getType().equals("King")) {
-                    return piece.getType().equals("Knight") || piece.getType().equals("Bishop");
-                }
-            }
+    /**
+     * Ends the game as a draw if the current position has occurred three times.
+     *
+     * @return True if the claim was valid and the game is now drawn
+     */
+    public boolean claimThreefoldRepetition() {
+        if (!canClaimThreefoldRepetition()) {
+            return false;
         }
+        gameOver = true;
+        result = "Draw by threefold repetition";
+        return true;
+    }
 
-        return false;
+    private void publishSnapshot() {
+        snapshot = BoardSnapshot.of(chessBoard, historyPly);
+    }
+
+    private void resetPositionHistory() {
+        historyPly = 0;
+        positionHistory[0] = chessBoard.getZobristKey();
     }
 
     /**
@@ -256,6 +325,8 @@ public class GameState {
         this.result = "";
         this.nonCaptureMoveCounter = 0;
         this.moveNumber = 1;
+        resetPositionHistory();
+        publishSnapshot();
 
         // Reset timers if it's a timed game
         if (timedGame) {
@@ -286,6 +357,6 @@ public class GameState {
      * @return True if the specified king is in check
      */
     public boolean isInCheck(int color) {
-        return chessBoard.isKingInCheck(color);
+        return chessBoard.getStatus(color).isInCheck();
     }
 }
\ No newline at end of file
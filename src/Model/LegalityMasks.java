@@ -0,0 +1,123 @@
+package Model;
+
+import Model.pieces.King;
+
+/**
+ * Pin and check information for one side, computed once per position.
+ * A non-king move is legal when its destination lies in the check mask and,
+ * for a pinned piece, on the line through the king and the piece.
+ */
+public final class LegalityMasks {
+    private static final long ALL_SQUARES = ~0L;
+
+    private final int version;
+    private final int kingSquare;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinned;
+
+    private LegalityMasks(int version, int kingSquare, long checkers, long checkMask, long pinned) {
+        this.version = version;
+        this.kingSquare = kingSquare;
+        this.checkers = checkers;
+        this.checkMask = checkMask;
+        this.pinned = pinned;
+    }
+
+    /**
+     * Work out checkers, the check-evasion mask and pinned pieces for one side
+     */
+    static LegalityMasks compute(Board board, int color, int version) {
+        King king = board.getKing(color);
+        if (king == null || king.getPosition() == null) {
+            // Without a king there is nothing to protect
+            return new LegalityMasks(version, -1, 0L, ALL_SQUARES, 0L);
+        }
+
+        int kingSquare = Bitboards.square(king.getPosition());
+        int enemy = PieceColor.opponent(color);
+        long occupied = board.getOccupancy();
+        long own = board.getColorMask(color);
+
+        long checkers = board.attackersTo(kingSquare, enemy);
+        long checkMask;
+        if (checkers == 0) {
+            checkMask = ALL_SQUARES;
+        } else if ((checkers & (checkers - 1)) == 0) {
+            // Single check: capture the checker or block the line to it
+            checkMask = checkers | Bitboards.BETWEEN[kingSquare][Bitboards.lowestSquare(checkers)];
+        } else {
+            // Double check: only king moves help
+            checkMask = 0L;
+        }
+
+        // Enemy sliders that would see the king on an empty board
+        long enemyQueens = board.getPieceMask(enemy, Bitboards.QUEEN);
+        long snipers = (Bitboards.rookAttacks(kingSquare, 0L)
+                & (board.getPieceMask(enemy, Bitboards.ROOK) | enemyQueens))
+                | (Bitboards.bishopAttacks(kingSquare, 0L)
+                & (board.getPieceMask(enemy, Bitboards.BISHOP) | enemyQueens));
+
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniperSquare = Bitboards.lowestSquare(snipers);
+            snipers &= snipers - 1;
+
+            long blockers = Bitboards.BETWEEN[kingSquare][sniperSquare] & occupied;
+            // Exactly one piece in between, and it is ours
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+
+        return new LegalityMasks(version, kingSquare, checkers, checkMask, pinned);
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * Check whether a non-king piece on one square may move to another
+     * without leaving its king in check
+     */
+    public boolean allows(int fromSquare, int toSquare) {
+        long toBit = Bitboards.bit(toSquare);
+        if ((checkMask & toBit) == 0) {
+            return false;
+        }
+        return (pinned & Bitboards.bit(fromSquare)) == 0
+                || (Bitboards.LINE[kingSquare][fromSquare] & toBit) != 0;
+    }
+
+    /**
+     * Restrict a set of destinations for a non-king piece to the legal ones
+     */
+    public long restrict(int fromSquare, long targets) {
+        targets &= checkMask;
+        if ((pinned & Bitboards.bit(fromSquare)) != 0) {
+            targets &= Bitboards.LINE[kingSquare][fromSquare];
+        }
+        return targets;
+    }
+
+    public int getKingSquare() {
+        return kingSquare;
+    }
+
+    public long getCheckers() {
+        return checkers;
+    }
+
+    public long getCheckMask() {
+        return checkMask;
+    }
+
+    public long getPinned() {
+        return pinned;
+    }
+
+    public boolean isInCheck() {
+        return checkers != 0;
+    }
+}
@@ -0,0 +1,115 @@
+package Model;
+
+/**
+ * Material signature packed into a long: a 4-bit count per color and piece
+ * kind, with bishops split by the color of the square they stand on. Board
+ * keeps the key current as pieces are placed, captured and promoted, so draw
+ * rules and endgame logic can classify a position without scanning pieces.
+ *
+ * Each color uses 32 bits (white in the high half): pawns, knights, light
+ * bishops, dark bishops, rooks and queens, 4 bits each from the low end.
+ * Kings are not counted.
+ */
+public final class MaterialKey {
+    private static final int PAWN_SHIFT = 0;
+    private static final int KNIGHT_SHIFT = 4;
+    private static final int LIGHT_BISHOP_SHIFT = 8;
+    private static final int DARK_BISHOP_SHIFT = 12;
+    private static final int ROOK_SHIFT = 16;
+    private static final int QUEEN_SHIFT = 20;
+    private static final int COLOR_SHIFT = 32;
+
+    // Pawns, rooks and queens of both colors: any of these can force mate
+    private static final long MATING_MATERIAL = fieldMask(PAWN_SHIFT) | fieldMask(ROOK_SHIFT) | fieldMask(QUEEN_SHIFT);
+
+    private MaterialKey() {
+        // Utility class
+    }
+
+    /**
+     * Amount the key changes by when a piece (packed piece code, see PackedMove) is added on a square
+     */
+    public static long unit(int pieceCode, int square) {
+        if (pieceCode == 0) {
+            return 0L;
+        }
+        int shift;
+        switch (PackedMove.codeKind(pieceCode)) {
+            case Bitboards.PAWN:
+                shift = PAWN_SHIFT;
+                break;
+            case Bitboards.KNIGHT:
+                shift = KNIGHT_SHIFT;
+                break;
+            case Bitboards.BISHOP:
+                shift = (Bitboards.LIGHT_SQUARES & Bitboards.bit(square)) != 0 ? LIGHT_BISHOP_SHIFT : DARK_BISHOP_SHIFT;
+                break;
+            case Bitboards.ROOK:
+                shift = ROOK_SHIFT;
+                break;
+            case Bitboards.QUEEN:
+                shift = QUEEN_SHIFT;
+                break;
+            default:
+                return 0L;
+        }
+        return 1L << (shift + PackedMove.codeColor(pieceCode) * COLOR_SHIFT);
+    }
+
+    /**
+     * Number of pieces of one color and kind; always 0 for kings
+     */
+    public static int count(long key, int color, int kind) {
+        int base = color * COLOR_SHIFT;
+        switch (kind) {
+            case Bitboards.PAWN:
+                return field(key, base + PAWN_SHIFT);
+            case Bitboards.KNIGHT:
+                return field(key, base + KNIGHT_SHIFT);
+            case Bitboards.BISHOP:
+                return field(key, base + LIGHT_BISHOP_SHIFT) + field(key, base + DARK_BISHOP_SHIFT);
+            case Bitboards.ROOK:
+                return field(key, base + ROOK_SHIFT);
+            case Bitboards.QUEEN:
+                return field(key, base + QUEEN_SHIFT);
+            default:
+                return 0;
+        }
+    }
+
+    public static int lightSquareBishops(long key, int color) {
+        return field(key, color * COLOR_SHIFT + LIGHT_BISHOP_SHIFT);
+    }
+
+    public static int darkSquareBishops(long key, int color) {
+        return field(key, color * COLOR_SHIFT + DARK_BISHOP_SHIFT);
+    }
+
+    /**
+     * Check whether neither side can possibly checkmate: bare kings, a single
+     * knight, or any number of bishops that all stand on squares of one color
+     */
+    public static boolean isInsufficientMaterial(long key) {
+        if ((key & MATING_MATERIAL) != 0) {
+            return false;
+        }
+
+        int knights = count(key, PieceColor.WHITE, Bitboards.KNIGHT) + count(key, PieceColor.BLACK, Bitboards.KNIGHT);
+        int lightBishops = lightSquareBishops(key, PieceColor.WHITE) + lightSquareBishops(key, PieceColor.BLACK);
+        int darkBishops = darkSquareBishops(key, PieceColor.WHITE) + darkSquareBishops(key, PieceColor.BLACK);
+
+        if (knights == 0) {
+            return lightBishops == 0 || darkBishops == 0;
+        }
+        return knights == 1 && lightBishops == 0 && darkBishops == 0;
+    }
+
+    private static int field(long key, int shift) {
+        return (int) (key >>> shift) & 15;
+    }
+
+    // The field at a shift for both colors
+    private static long fieldMask(int shift) {
+        return (15L << shift) | (15L << (shift + COLOR_SHIFT));
+    }
+}
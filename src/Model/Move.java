@@ -9,6 +9,7 @@ public class Move {
     private final boolean castlingMove;
     private final boolean enPassantCapture;
     private final int moveFlags; // Bitfield for additional move data
+    private final int promotionKind; // Bitboards kind the pawn becomes, only used for promotions
 
     // Constants for move flags
     public static final int FLAG_CHECK = 1;
@@ -22,6 +23,13 @@ public class Move {
     public Move(Position origin, Position destination, Piece movingPiece,
                 Piece takenPiece, boolean promotion, boolean castlingMove,
                 boolean enPassantCapture, int moveFlags) {
+        this(origin, destination, movingPiece, takenPiece, promotion, castlingMove,
+                enPassantCapture, moveFlags, Bitboards.QUEEN);
+    }
+
+    public Move(Position origin, Position destination, Piece movingPiece,
+                Piece takenPiece, boolean promotion, boolean castlingMove,
+                boolean enPassantCapture, int moveFlags, int promotionKind) {
         this.origin = origin;
         this.destination = destination;
         this.movingPiece = movingPiece;
@@ -30,6 +38,7 @@ public class Move {
         this.castlingMove = castlingMove;
         this.enPassantCapture = enPassantCapture;
         this.moveFlags = moveFlags;
+        this.promotionKind = promotionKind;
     }
 
     // Factory method for creating simple moves
@@ -42,6 +51,12 @@ public class Move {
         return new Move(origin, destination, movingPiece, takenPiece, true, false, false, 0);
     }
 
+    // Factory method for creating under-promotions (or promotions to a chosen piece)
+    public static Move createPromotion(Position origin, Position destination, Piece movingPiece, Piece takenPiece,
+                                       int promotionKind) {
+        return new Move(origin, destination, movingPiece, takenPiece, true, false, false, 0, promotionKind);
+    }
+
     // Factory method for creating castling moves
     public static Move createCastling(Position origin, Position destination, Piece movingPiece) {
         return new Move(origin, destination, movingPiece, null, false, true, false, 0);
@@ -72,6 +87,10 @@ public class Move {
         return promotion;
     }
 
+    public int getPromotionKind() {
+        return promotionKind;
+    }
+
     public boolean isCastlingMove() {
         return castlingMove;
     }
@@ -90,7 +109,7 @@ public class Move {
 
     public Move withFlag(int flag) {
         return new Move(origin, destination, movingPiece, takenPiece,
-                promotion, castlingMove, enPassantCapture, moveFlags | flag);
+                promotion, castlingMove, enPassantCapture, moveFlags | flag, promotionKind);
     }
 
     @Override
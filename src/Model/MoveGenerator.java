@@ -0,0 +1,394 @@
+package Model;
+
+import Model.pieces.King;
+
+/**
+ * Legal move generation into a MoveList of packed moves, using the board's
+ * bitboards and legality masks instead of per-piece Move objects.
+ * Moves can be generated by category so callers can look at captures first.
+ */
+public final class MoveGenerator {
+    // Captures, including capturing promotions and en passant
+    public static final int CAPTURES = 1;
+    // Promotions that do not capture
+    public static final int PROMOTIONS = 2;
+    // All other moves, including castling
+    public static final int QUIETS = 4;
+    public static final int ALL = CAPTURES | PROMOTIONS | QUIETS;
+
+    private static final int[] PROMOTION_KINDS = {
+            Bitboards.QUEEN, Bitboards.ROOK, Bitboards.BISHOP, Bitboards.KNIGHT
+    };
+
+    private MoveGenerator() {
+        // Utility class
+    }
+
+    /**
+     * Append every legal move for a side to the list
+     */
+    public static void generateLegalMoves(Board board, int color, MoveList moves) {
+        generate(board, color, ALL, moves);
+    }
+
+    /**
+     * Append the legal moves in the given categories (CAPTURES, PROMOTIONS, QUIETS) to the list
+     */
+    public static void generate(Board board, int color, int categories, MoveList moves) {
+        int enemy = PieceColor.opponent(color);
+        long occupied = board.getOccupancy();
+        LegalityMasks legality = board.getLegalityMasks(color);
+
+        // Destinations allowed for piece moves in the requested categories
+        long targets = 0L;
+        if ((categories & CAPTURES) != 0) {
+            targets |= board.getColorMask(enemy);
+        }
+        if ((categories & QUIETS) != 0) {
+            targets |= ~occupied;
+        }
+
+        int kingSquare = legality.getKingSquare();
+        if (kingSquare >= 0) {
+            addKingMoves(board, color, kingSquare, targets, occupied, moves);
+            if ((categories & QUIETS) != 0 && !legality.isInCheck()) {
+                addCastlingMoves(board, color, kingSquare, moves);
+            }
+        }
+
+        // In double check only the king may move
+        long checkers = legality.getCheckers();
+        if ((checkers & (checkers - 1)) != 0) {
+            return;
+        }
+
+        for (int kind = Bitboards.KNIGHT; kind <= Bitboards.QUEEN; kind++) {
+            int pieceCode = PackedMove.pieceCode(color, kind);
+            long pieces = board.getPieceMask(color, kind);
+            while (pieces != 0) {
+                int from = Bitboards.lowestSquare(pieces);
+                pieces &= pieces - 1;
+                long pieceTargets = legality.restrict(from, Bitboards.pieceAttacks(kind, color, from, occupied) & targets);
+                addMoves(board, from, pieceCode, pieceTargets, moves);
+            }
+        }
+
+        addPawnMoves(board, color, enemy, occupied, legality, categories, moves);
+    }
+
+    /**
+     * Find the legal move of the piece on one square to another without generating
+     * any other moves: a table lookup for the piece's reach, then one pin/check test.
+     *
+     * @param promotionKind kind a pawn promotes to if the move reaches the last row
+     * @return the packed move, or PackedMove.NONE if the move is not legal
+     */
+    public static int legalMove(Board board, int from, int to, int promotionKind) {
+        int pieceCode = board.getPieceCode(from);
+        if (pieceCode == 0 || from == to) {
+            return PackedMove.NONE;
+        }
+
+        int color = PackedMove.codeColor(pieceCode);
+        int kind = PackedMove.codeKind(pieceCode);
+        int enemy = PieceColor.opponent(color);
+        long toBit = Bitboards.bit(to);
+        if ((board.getColorMask(color) & toBit) != 0) {
+            return PackedMove.NONE;
+        }
+
+        long occupied = board.getOccupancy();
+        int capturedCode = board.getPieceCode(to);
+        LegalityMasks legality = board.getLegalityMasks(color);
+
+        switch (kind) {
+            case Bitboards.KING:
+                if (from != legality.getKingSquare()) {
+                    return PackedMove.NONE;
+                }
+                if (Bitboards.row(from) == Bitboards.row(to) && Math.abs(Bitboards.column(to) - Bitboards.column(from)) == 2) {
+                    return legality.isInCheck() ? PackedMove.NONE
+                            : castlingMove(board, color, from, Bitboards.column(to) > Bitboards.column(from));
+                }
+                if ((Bitboards.KING_ATTACKS[from] & toBit) == 0
+                        || board.attackersTo(to, enemy, occupied & ~Bitboards.bit(from)) != 0) {
+                    return PackedMove.NONE;
+                }
+                return PackedMove.encode(from, to, pieceCode, capturedCode, -1, 0);
+
+            case Bitboards.PAWN:
+                return legalPawnMove(board, from, to, color, pieceCode, capturedCode, promotionKind, legality);
+
+            default:
+                if ((Bitboards.pieceAttacks(kind, color, from, occupied) & toBit) == 0 || !legality.allows(from, to)) {
+                    return PackedMove.NONE;
+                }
+                return PackedMove.encode(from, to, pieceCode, capturedCode, -1, 0);
+        }
+    }
+
+    private static int legalPawnMove(Board board, int from, int to, int color, int pieceCode, int capturedCode,
+                                     int promotionKind, LegalityMasks legality) {
+        int forward = color == PieceColor.WHITE ? -8 : 8;
+        long occupied = board.getOccupancy();
+        int flags = 0;
+
+        if ((Bitboards.PAWN_ATTACKS[color][from] & Bitboards.bit(to)) != 0) {
+            if (capturedCode == 0) {
+                // A diagonal step onto an empty square is only legal en passant
+                return to == board.getEnPassantSquare() ? enPassantMove(board, color, from) : PackedMove.NONE;
+            }
+        } else if (to == from + forward) {
+            if ((occupied & Bitboards.bit(to)) != 0) {
+                return PackedMove.NONE;
+            }
+        } else if (to == from + 2 * forward) {
+            if (board.getPieceAt(from).hasMoved()
+                    || (occupied & (Bitboards.bit(from + forward) | Bitboards.bit(to))) != 0) {
+                return PackedMove.NONE;
+            }
+            flags = PackedMove.FLAG_DOUBLE_PUSH;
+        } else {
+            return PackedMove.NONE;
+        }
+
+        if (!legality.allows(from, to)) {
+            return PackedMove.NONE;
+        }
+        if (!isPromotionSquare(to)) {
+            return PackedMove.encode(from, to, pieceCode, capturedCode, -1, flags);
+        }
+        if (promotionKind < Bitboards.KNIGHT || promotionKind > Bitboards.QUEEN) {
+            return PackedMove.NONE;
+        }
+        return PackedMove.encode(from, to, pieceCode, capturedCode, promotionKind, flags);
+    }
+
+    /**
+     * Check whether a side has at least one legal move, stopping at the first one found
+     */
+    public static boolean hasLegalMove(Board board, int color) {
+        int enemy = PieceColor.opponent(color);
+        long own = board.getColorMask(color);
+        long occupied = board.getOccupancy();
+        LegalityMasks legality = board.getLegalityMasks(color);
+
+        // A legal castling move implies a legal king step, so castling need not be checked
+        int kingSquare = legality.getKingSquare();
+        if (kingSquare >= 0) {
+            long occupiedWithoutKing = occupied & ~Bitboards.bit(kingSquare);
+            long targets = Bitboards.KING_ATTACKS[kingSquare] & ~own;
+            while (targets != 0) {
+                int to = Bitboards.lowestSquare(targets);
+                targets &= targets - 1;
+                if (board.attackersTo(to, enemy, occupiedWithoutKing) == 0) {
+                    return true;
+                }
+            }
+        }
+
+        long checkers = legality.getCheckers();
+        if ((checkers & (checkers - 1)) != 0) {
+            return false;
+        }
+
+        for (int kind = Bitboards.KNIGHT; kind <= Bitboards.QUEEN; kind++) {
+            long pieces = board.getPieceMask(color, kind);
+            while (pieces != 0) {
+                int from = Bitboards.lowestSquare(pieces);
+                pieces &= pieces - 1;
+                if (legality.restrict(from, Bitboards.pieceAttacks(kind, color, from, occupied) & ~own) != 0) {
+                    return true;
+                }
+            }
+        }
+
+        int forward = color == PieceColor.WHITE ? -8 : 8;
+        long enemies = board.getColorMask(enemy);
+        long pawns = board.getPieceMask(color, Bitboards.PAWN);
+        while (pawns != 0) {
+            int from = Bitboards.lowestSquare(pawns);
+            pawns &= pawns - 1;
+
+            int one = from + forward;
+            if (one >= 0 && one < 64 && (occupied & Bitboards.bit(one)) == 0) {
+                if (legality.allows(from, one)) {
+                    return true;
+                }
+                int two = one + forward;
+                if (!board.getPieceAt(from).hasMoved() && two >= 0 && two < 64
+                        && (occupied & Bitboards.bit(two)) == 0 && legality.allows(from, two)) {
+                    return true;
+                }
+            }
+            if (legality.restrict(from, Bitboards.PAWN_ATTACKS[color][from] & enemies) != 0
+                    || enPassantMove(board, color, from) != PackedMove.NONE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addKingMoves(Board board, int color, int kingSquare, long targets, long occupied,
+                                     MoveList moves) {
+        int enemy = PieceColor.opponent(color);
+        int pieceCode = PackedMove.pieceCode(color, Bitboards.KING);
+        // Take the king off the board so sliders see through its current square
+        long occupiedWithoutKing = occupied & ~Bitboards.bit(kingSquare);
+        targets &= Bitboards.KING_ATTACKS[kingSquare];
+        while (targets != 0) {
+            int to = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            if (board.attackersTo(to, enemy, occupiedWithoutKing) == 0) {
+                moves.add(PackedMove.encode(kingSquare, to, pieceCode, board.getPieceCode(to), -1, 0));
+            }
+        }
+    }
+
+    private static void addCastlingMoves(Board board, int color, int kingSquare, MoveList moves) {
+        int kingside = castlingMove(board, color, kingSquare, true);
+        if (kingside != PackedMove.NONE) {
+            moves.add(kingside);
+        }
+        int queenside = castlingMove(board, color, kingSquare, false);
+        if (queenside != PackedMove.NONE) {
+            moves.add(queenside);
+        }
+    }
+
+    // The castling move to one side, or NONE if it is not allowed; the caller checks the king is not in check
+    private static int castlingMove(Board board, int color, int kingSquare, boolean kingside) {
+        King king = board.getKing(color);
+        if (king == null || king.hasMoved()) {
+            return PackedMove.NONE;
+        }
+
+        int row = Bitboards.row(kingSquare);
+        int enemy = PieceColor.opponent(color);
+        if (kingside) {
+            // Kingside: f and g empty and not attacked
+            if (!canCastleWith(board, color, Bitboards.square(7, row))
+                    || board.getPieceAt(Bitboards.square(5, row)) != null
+                    || board.getPieceAt(Bitboards.square(6, row)) != null
+                    || board.isAttacked(Bitboards.square(5, row), enemy)
+                    || board.isAttacked(Bitboards.square(6, row), enemy)) {
+                return PackedMove.NONE;
+            }
+        } else {
+            // Queenside: b, c and d empty, c and d not attacked
+            if (!canCastleWith(board, color, Bitboards.square(0, row))
+                    || board.getPieceAt(Bitboards.square(1, row)) != null
+                    || board.getPieceAt(Bitboards.square(2, row)) != null
+                    || board.getPieceAt(Bitboards.square(3, row)) != null
+                    || board.isAttacked(Bitboards.square(2, row), enemy)
+                    || board.isAttacked(Bitboards.square(3, row), enemy)) {
+                return PackedMove.NONE;
+            }
+        }
+        return PackedMove.encode(kingSquare, Bitboards.square(kingside ? 6 : 2, row),
+                PackedMove.pieceCode(color, Bitboards.KING), 0, -1, PackedMove.FLAG_CASTLING);
+    }
+
+    private static boolean canCastleWith(Board board, int color, int rookSquare) {
+        Piece rook = board.getPieceAt(rookSquare);
+        return rook != null && !rook.hasMoved()
+                && board.getPieceCode(rookSquare) == PackedMove.pieceCode(color, Bitboards.ROOK);
+    }
+
+    private static void addPawnMoves(Board board, int color, int enemy, long occupied,
+                                     LegalityMasks legality, int categories, MoveList moves) {
+        int pieceCode = PackedMove.pieceCode(color, Bitboards.PAWN);
+        int forward = color == PieceColor.WHITE ? -8 : 8;
+        boolean captures = (categories & CAPTURES) != 0;
+        boolean promotions = (categories & PROMOTIONS) != 0;
+        boolean quiets = (categories & QUIETS) != 0;
+        long enemies = board.getColorMask(enemy);
+        int enPassantSquare = board.getEnPassantSquare();
+
+        long pawns = board.getPieceMask(color, Bitboards.PAWN);
+        while (pawns != 0) {
+            int from = Bitboards.lowestSquare(pawns);
+            pawns &= pawns - 1;
+
+            // Pushes
+            int one = from + forward;
+            if (one >= 0 && one < 64 && (occupied & Bitboards.bit(one)) == 0) {
+                boolean promoting = isPromotionSquare(one);
+                if ((promoting ? promotions : quiets) && legality.allows(from, one)) {
+                    addPawnMove(from, one, pieceCode, 0, moves);
+                }
+                int two = one + forward;
+                if (quiets && !board.getPieceAt(from).hasMoved() && two >= 0 && two < 64
+                        && (occupied & Bitboards.bit(two)) == 0 && legality.allows(from, two)) {
+                    moves.add(PackedMove.encode(from, two, pieceCode, 0, -1, PackedMove.FLAG_DOUBLE_PUSH));
+                }
+            }
+
+            if (!captures) {
+                continue;
+            }
+
+            // Captures
+            long attacks = Bitboards.PAWN_ATTACKS[color][from];
+            long targets = legality.restrict(from, attacks & enemies);
+            while (targets != 0) {
+                int to = Bitboards.lowestSquare(targets);
+                targets &= targets - 1;
+                addPawnMove(from, to, pieceCode, board.getPieceCode(to), moves);
+            }
+
+            if (enPassantSquare >= 0) {
+                int move = enPassantMove(board, color, from);
+                if (move != PackedMove.NONE) {
+                    moves.add(move);
+                }
+            }
+        }
+    }
+
+    // The legal en passant capture for the pawn on a square, or NONE
+    private static int enPassantMove(Board board, int color, int from) {
+        int enPassantSquare = board.getEnPassantSquare();
+        if (enPassantSquare < 0 || (Bitboards.PAWN_ATTACKS[color][from] & Bitboards.bit(enPassantSquare)) == 0) {
+            return PackedMove.NONE;
+        }
+
+        int victimSquare = Bitboards.square(Bitboards.column(enPassantSquare), Bitboards.row(from));
+        int victimCode = board.getPieceCode(victimSquare);
+        if (victimCode != PackedMove.pieceCode(PieceColor.opponent(color), Bitboards.PAWN)) {
+            return PackedMove.NONE;
+        }
+
+        // En passant lifts two pawns off one row, which the pin masks cannot see,
+        // so verify this rare move by playing it
+        int move = PackedMove.encode(from, enPassantSquare, PackedMove.pieceCode(color, Bitboards.PAWN),
+                victimCode, -1, PackedMove.FLAG_EN_PASSANT);
+        board.makeMove(move);
+        boolean legal = !board.isKingInCheck(color);
+        board.unmakeLastMove();
+        return legal ? move : PackedMove.NONE;
+    }
+
+    private static boolean isPromotionSquare(int square) {
+        int row = Bitboards.row(square);
+        return row == 0 || row == 7;
+    }
+
+    private static void addPawnMove(int from, int to, int pieceCode, int capturedCode, MoveList moves) {
+        if (isPromotionSquare(to)) {
+            for (int kind : PROMOTION_KINDS) {
+                moves.add(PackedMove.encode(from, to, pieceCode, capturedCode, kind, 0));
+            }
+        } else {
+            moves.add(PackedMove.encode(from, to, pieceCode, capturedCode, -1, 0));
+        }
+    }
+
+    private static void addMoves(Board board, int from, int pieceCode, long targets, MoveList moves) {
+        while (targets != 0) {
+            int to = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            moves.add(PackedMove.encode(from, to, pieceCode, board.getPieceCode(to), -1, 0));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package Model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Append-only move history that copies share instead of duplicating.
+ *
+ * Every history is a prefix of a shared buffer. Copying takes the same buffer
+ * and length in O(1) and freezes that prefix. Appending writes in place when
+ * this history owns the end of the buffer; otherwise, for example after a copy
+ * has already appended, the prefix is copied into a new buffer first.
+ * Taking back a move frees its slot only if no copy can see it, so make/unmake
+ * pairs on an unshared board never copy.
+ *
+ * Outside Board the history is a read-only list.
+ */
+public final class MoveHistory extends AbstractList<Move> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Backing array shared by a history and its copies
+    private static final class Buffer {
+        final Move[] moves;
+        int used;    // Slots written by any history sharing this buffer
+        int frozen;  // Slots visible to more than one history; never overwritten
+
+        Buffer(int capacity) {
+            moves = new Move[capacity];
+        }
+    }
+
+    private Buffer buffer;
+    private int length;
+
+    MoveHistory() {
+        buffer = new Buffer(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Share another history's moves in O(1)
+     */
+    MoveHistory(MoveHistory original) {
+        synchronized (original.buffer) {
+            buffer = original.buffer;
+            length = original.length;
+            buffer.frozen = Math.max(buffer.frozen, length);
+        }
+    }
+
+    @Override
+    public Move get(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+        }
+        return buffer.moves[index];
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    public Move getLast() {
+        return length == 0 ? null : buffer.moves[length - 1];
+    }
+
+    /**
+     * Get an immutable copy of the history as it is now, in O(1)
+     */
+    public MoveHistory snapshot() {
+        return new MoveHistory(this);
+    }
+
+    void append(Move move) {
+        synchronized (buffer) {
+            if (length == buffer.used && length < buffer.moves.length) {
+                buffer.moves[length] = move;
+                buffer.used++;
+                length++;
+                return;
+            }
+        }
+
+        // Someone else owns the end of the buffer, or it is full: move to a buffer of our own
+        Buffer own = new Buffer(Math.max(INITIAL_CAPACITY, length * 2));
+        System.arraycopy(buffer.moves, 0, own.moves, 0, length);
+        own.moves[length] = move;
+        own.used = length + 1;
+        buffer = own;
+        length++;
+    }
+
+    void removeLast() {
+        synchronized (buffer) {
+            // Free the slot for reuse if we own it and no copy can see it
+            if (length == buffer.used && length > buffer.frozen) {
+                buffer.moves[length - 1] = null;
+                buffer.used--;
+            }
+            length--;
+        }
+    }
+
+    void reset() {
+        buffer = new Buffer(INITIAL_CAPACITY);
+        length = 0;
+    }
+}
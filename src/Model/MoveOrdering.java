@@ -0,0 +1,165 @@
+package Model;
+
+/**
+ * Move ordering for the engine's main search. MovePicker has each stage's
+ * moves scored as it generates them and picks them best-first:
+ *   1. winning and equal captures by MVV-LVA (most valuable victim, then
+ *      least valuable attacker), and queen promotions
+ *   2. the two killer moves of the ply: quiet moves that caused a cutoff in
+ *      a sibling node
+ *   3. the countermove: the quiet move that last refuted the opponent's
+ *      previous move
+ *   4. other quiet moves by butterfly history (from/to square cutoff score)
+ *   5. captures that lose material by static exchange, and underpromotions
+ * The hash move is tried by MovePicker before any of these are generated.
+ *
+ * One instance per search thread. All tables are primitive arrays allocated
+ * up front, so ordering does not allocate during the search.
+ */
+final class MoveOrdering {
+    private static final int GOOD_CAPTURE = 1 << 28;
+    private static final int FIRST_KILLER = 1 << 27;
+    private static final int SECOND_KILLER = FIRST_KILLER - 1;
+    private static final int COUNTER_MOVE = FIRST_KILLER - 2;
+    private static final int BAD_CAPTURE = -(1 << 28);
+
+    // History scores stay within +/- this, well below the killer scores
+    private static final int HISTORY_MAX = 1 << 14;
+
+    private final int[][] killers;
+    // Indexed by color, from square, to square
+    private final int[][][] history = new int[2][64][64];
+    // Indexed by the previous move's piece code and destination
+    private final int[][] counterMoves = new int[16][64];
+
+    MoveOrdering(int maxPly) {
+        killers = new int[maxPly][2];
+    }
+
+    /**
+     * Forget killers and fade history before a new search
+     */
+    void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = PackedMove.NONE;
+            plyKillers[1] = PackedMove.NONE;
+        }
+        for (int[][] colorHistory : history) {
+            for (int[] fromHistory : colorHistory) {
+                for (int to = 0; to < 64; to++) {
+                    fromHistory[to] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Score the moves in a list from the first index on, for picking
+     *
+     * @param previousMove the move that led to this position, or PackedMove.NONE at the root
+     */
+    void score(Board board, MoveList moves, int[] scores, int first, int ply, int previousMove) {
+        int counterMove = previousMove == PackedMove.NONE ? PackedMove.NONE
+                : counterMoves[PackedMove.piece(previousMove)][PackedMove.to(previousMove)];
+        int[] plyKillers = killers[ply];
+
+        for (int i = first; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (isQuiet(move)) {
+                if (move == plyKillers[0]) {
+                    scores[i] = FIRST_KILLER;
+                } else if (move == plyKillers[1]) {
+                    scores[i] = SECOND_KILLER;
+                } else if (move == counterMove) {
+                    scores[i] = COUNTER_MOVE;
+                } else {
+                    int color = PackedMove.codeColor(PackedMove.piece(move));
+                    scores[i] = history[color][PackedMove.from(move)][PackedMove.to(move)];
+                }
+            } else {
+                scores[i] = scoreTactical(board, move);
+            }
+        }
+    }
+
+    /**
+     * Move the best-scored move in [index, end) to index and return it
+     */
+    int pick(MoveList moves, int[] scores, int index, int end) {
+        int best = index;
+        for (int i = index + 1; i < end; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Learn from a quiet move that caused a beta cutoff: make it a killer and
+     * the countermove, raise its history and lower that of the quiet moves
+     * searched before it without success
+     */
+    void recordCutoff(int move, int ply, int depth, int previousMove, int[] failedQuiets, int failedCount) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        if (previousMove != PackedMove.NONE) {
+            counterMoves[PackedMove.piece(previousMove)][PackedMove.to(previousMove)] = move;
+        }
+
+        int bonus = Math.min(depth * depth, HISTORY_MAX / 4);
+        updateHistory(move, bonus);
+        for (int i = 0; i < failedCount; i++) {
+            updateHistory(failedQuiets[i], -bonus);
+        }
+    }
+
+    // True for the score of a capture or promotion that loses material
+    static boolean isBadTactical(int score) {
+        return score < 0;
+    }
+
+    static boolean isQuiet(int move) {
+        return PackedMove.captured(move) == 0 && !PackedMove.isEnPassant(move) && !PackedMove.isPromotion(move);
+    }
+
+    private int scoreTactical(Board board, int move) {
+        int attacker = PackedMove.codeKind(PackedMove.piece(move));
+        int captured = PackedMove.captured(move);
+
+        if (captured == 0 && !PackedMove.isEnPassant(move)) {
+            // Quiet promotion
+            return PackedMove.promotionKind(move) == Bitboards.QUEEN ? GOOD_CAPTURE : BAD_CAPTURE;
+        }
+
+        int victim = captured == 0 ? Bitboards.PAWN : PackedMove.codeKind(captured);
+        int mvvLva = victim * 8 + (Bitboards.KING - attacker);
+        if (PackedMove.isPromotion(move)) {
+            mvvLva += PackedMove.promotionKind(move) * 64;
+        }
+
+        // Only a capture by a more valuable piece can lose material
+        if (Evaluation.pieceValue(attacker) > Evaluation.pieceValue(victim)
+                && StaticExchange.evaluate(board, move) < 0) {
+            return BAD_CAPTURE + mvvLva;
+        }
+        return GOOD_CAPTURE + mvvLva;
+    }
+
+    // Move the score toward the bonus's sign, more slowly the closer it is to the limit
+    private void updateHistory(int move, int bonus) {
+        int color = PackedMove.codeColor(PackedMove.piece(move));
+        int[] fromHistory = history[color][PackedMove.from(move)];
+        int to = PackedMove.to(move);
+        fromHistory[to] += bonus - fromHistory[to] * Math.abs(bonus) / HISTORY_MAX;
+    }
+}
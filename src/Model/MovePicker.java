@@ -0,0 +1,166 @@
+package Model;
+
+/**
+ * Hands out legal moves one at a time in stages: the hash move first, then
+ * captures and promotions, then the remaining quiet moves. Each stage is only
+ * generated when the previous one is used up, so a caller that stops early
+ * never pays for the rest.
+ *
+ * With a MoveOrdering the stages are also sorted best-first as they are
+ * handed out: captures by MVV-LVA, then quiet moves with the killers and the
+ * countermove ahead of the rest by history, and last the captures and
+ * underpromotions that lose material. Without one, moves come in generation
+ * order. The engine keeps one picker per ply and resets it at each node, so
+ * picking does not allocate.
+ */
+public final class MovePicker {
+    private static final int STAGE_HASH_MOVE = 0;
+    private static final int STAGE_GENERATE_TACTICAL = 1;
+    private static final int STAGE_GOOD_TACTICAL = 2;
+    private static final int STAGE_GENERATE_QUIETS = 3;
+    private static final int STAGE_QUIETS = 4;
+    private static final int STAGE_BAD_TACTICAL = 5;
+    private static final int STAGE_DONE = 6;
+
+    private final MoveOrdering ordering;
+    private final MoveList moves;
+    private final int[] scores;
+    private Board board;
+    private int color;
+    private int hashMove;
+    private int ply;
+    private int previousMove;
+    private int stage;
+    private int index;
+    // Captures and promotions fill the list up to here; quiet moves follow
+    private int tacticalEnd;
+    // First capture or promotion held back for the last stage
+    private int badTacticalStart;
+
+    public MovePicker(Board board, int color) {
+        this(board, color, PackedMove.NONE, new MoveList());
+    }
+
+    /**
+     * @param hashMove move to try first, or PackedMove.NONE; it is checked for legality before use
+     * @param buffer   list to generate into, so one buffer per ply can be reused
+     */
+    public MovePicker(Board board, int color, int hashMove, MoveList buffer) {
+        this.ordering = null;
+        this.moves = buffer;
+        this.scores = null;
+        reset(board, color, hashMove, 0, PackedMove.NONE);
+    }
+
+    /**
+     * Picker for the engine, which orders its moves and is reset at every node
+     */
+    MovePicker(MoveOrdering ordering, int capacity) {
+        this.ordering = ordering;
+        this.moves = new MoveList(capacity);
+        this.scores = new int[capacity];
+    }
+
+    /**
+     * Start over for a new position
+     *
+     * @param previousMove the move that led to this position, or PackedMove.NONE at the root
+     */
+    void reset(Board board, int color, int hashMove, int ply, int previousMove) {
+        this.board = board;
+        this.color = color;
+        this.hashMove = hashMove;
+        this.ply = ply;
+        this.previousMove = previousMove;
+        this.stage = STAGE_HASH_MOVE;
+        this.index = 0;
+        moves.clear();
+    }
+
+    /**
+     * Get the next legal move, or PackedMove.NONE when there are no more
+     */
+    public int next() {
+        while (true) {
+            switch (stage) {
+                case STAGE_HASH_MOVE:
+                    stage = STAGE_GENERATE_TACTICAL;
+                    if (hashMove != PackedMove.NONE && isLegalHashMove()) {
+                        return hashMove;
+                    }
+                    break;
+                case STAGE_GENERATE_TACTICAL:
+                    generate(MoveGenerator.CAPTURES | MoveGenerator.PROMOTIONS);
+                    tacticalEnd = moves.size();
+                    stage = STAGE_GOOD_TACTICAL;
+                    break;
+                case STAGE_GOOD_TACTICAL:
+                    if (index < tacticalEnd) {
+                        int move = pick(tacticalEnd);
+                        // Losing captures wait until after the quiet moves
+                        if (ordering == null || !MoveOrdering.isBadTactical(scores[index])) {
+                            index++;
+                            if (move != hashMove) {
+                                return move;
+                            }
+                            break;
+                        }
+                    }
+                    badTacticalStart = index;
+                    stage = STAGE_GENERATE_QUIETS;
+                    break;
+                case STAGE_GENERATE_QUIETS:
+                    generate(MoveGenerator.QUIETS);
+                    index = tacticalEnd;
+                    stage = STAGE_QUIETS;
+                    break;
+                case STAGE_QUIETS:
+                    if (index < moves.size()) {
+                        int move = pick(moves.size());
+                        index++;
+                        if (move != hashMove) {
+                            return move;
+                        }
+                        break;
+                    }
+                    index = badTacticalStart;
+                    stage = STAGE_BAD_TACTICAL;
+                    break;
+                case STAGE_BAD_TACTICAL:
+                    if (index < tacticalEnd) {
+                        int move = pick(tacticalEnd);
+                        index++;
+                        if (move != hashMove) {
+                            return move;
+                        }
+                        break;
+                    }
+                    stage = STAGE_DONE;
+                    break;
+                default:
+                    return PackedMove.NONE;
+            }
+        }
+    }
+
+    // Append a stage's moves after the earlier stages and score them
+    private void generate(int categories) {
+        int first = moves.size();
+        MoveGenerator.generate(board, color, categories, moves);
+        if (ordering != null) {
+            ordering.score(board, moves, scores, first, ply, previousMove);
+        }
+    }
+
+    private int pick(int end) {
+        return ordering == null ? moves.get(index) : ordering.pick(moves, scores, index, end);
+    }
+
+    // The hash move may come from another position; rebuild it here and compare
+    private boolean isLegalHashMove() {
+        int from = PackedMove.from(hashMove);
+        return PackedMove.codeColor(board.getPieceCode(from)) == color
+                && MoveGenerator.legalMove(board, from, PackedMove.to(hashMove),
+                        PackedMove.promotionKind(hashMove)) == hashMove;
+    }
+}
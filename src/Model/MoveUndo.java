@@ -0,0 +1,45 @@
+package Model;
+
+/**
+ * Everything Board needs to take a move back: the captured piece and where it
+ * stood, the castling rook, the promoted piece, the hasMoved flags the move
+ * overwrote, and the previous en passant square and side to move.
+ *
+ * Records returned by makeMove(Move) belong to the caller; records used by the
+ * packed makeMove(int) path are pooled inside the board and reused.
+ */
+public final class MoveUndo {
+    Move move; // null for packed moves
+    Piece movedPiece;
+    int from;
+    int to;
+    boolean pieceHadMoved;
+    int previousEnPassant;
+    int previousSideToMove;
+
+    // Captured piece, its square and its slot in the owner's piece list
+    Piece capturedPiece;
+    int capturedSquare;
+    int capturedIndex;
+
+    // Castling rook and the squares it moved between
+    Piece castlingRook;
+    boolean rookHadMoved;
+    int rookFrom;
+    int rookTo;
+
+    // Piece that replaced a promoting pawn, and the pawn's slot in its piece list
+    Piece promotedPiece;
+    int promotionIndex;
+
+    MoveUndo() {
+    }
+
+    public Move getMove() {
+        return move;
+    }
+
+    public Piece getCapturedPiece() {
+        return capturedPiece;
+    }
+}
@@ -0,0 +1,140 @@
+package Model;
+
+/**
+ * Moves packed into a single int so search and perft can work on primitives.
+ *
+ * Layout (low to high bits):
+ *   0-5   origin square (row * 8 + column)
+ *   6-11  destination square
+ *   12-15 moving piece code
+ *   16-19 captured piece code (0 when nothing is captured)
+ *   20-22 promotion kind + 1 (0 when not a promotion)
+ *   23-25 flags (castling, en passant, double pawn push)
+ *
+ * A piece code is (color << 3) | (kind + 1), so 0 always means "no piece".
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    public static final int FLAG_CASTLING = 1;
+    public static final int FLAG_EN_PASSANT = 2;
+    public static final int FLAG_DOUBLE_PUSH = 4;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PIECE_SHIFT = 12;
+    private static final int CAPTURED_SHIFT = 16;
+    private static final int PROMOTION_SHIFT = 20;
+    private static final int FLAGS_SHIFT = 23;
+
+    private PackedMove() {
+        // Utility class
+    }
+
+    public static int encode(int from, int to, int piece, int captured, int promotionKind, int flags) {
+        int promotion = promotionKind < 0 ? 0 : promotionKind + 1;
+        return from
+                | (to << TO_SHIFT)
+                | (piece << PIECE_SHIFT)
+                | (captured << CAPTURED_SHIFT)
+                | (promotion << PROMOTION_SHIFT)
+                | (flags << FLAGS_SHIFT);
+    }
+
+    public static int pieceCode(int color, int kind) {
+        return (color << 3) | (kind + 1);
+    }
+
+    public static int pieceCode(Piece piece) {
+        return piece == null ? 0 : pieceCode(piece.getColor(), Bitboards.kindOf(piece));
+    }
+
+    public static int codeColor(int code) {
+        return code >>> 3;
+    }
+
+    public static int codeKind(int code) {
+        return (code & 7) - 1;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & 63;
+    }
+
+    public static int piece(int move) {
+        return (move >>> PIECE_SHIFT) & 15;
+    }
+
+    public static int captured(int move) {
+        return (move >>> CAPTURED_SHIFT) & 15;
+    }
+
+    // Kind the pawn promotes to, or -1 if this is not a promotion
+    public static int promotionKind(int move) {
+        return ((move >>> PROMOTION_SHIFT) & 7) - 1;
+    }
+
+    public static int flags(int move) {
+        return (move >>> FLAGS_SHIFT) & 7;
+    }
+
+    public static boolean isCapture(int move) {
+        return captured(move) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & 7) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (flags(move) & FLAG_CASTLING) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (flags(move) & FLAG_EN_PASSANT) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (flags(move) & FLAG_DOUBLE_PUSH) != 0;
+    }
+
+    /**
+     * Pack an object move. The pieces it references only need to be valid for this call.
+     */
+    public static int fromMove(Move move) {
+        Piece piece = move.getMovingPiece();
+        int from = move.getOrigin().getSquare();
+        int to = move.getDestination().getSquare();
+
+        int flags = 0;
+        if (move.isCastlingMove()) {
+            flags |= FLAG_CASTLING;
+        }
+        if (move.isEnPassantCapture()) {
+            flags |= FLAG_EN_PASSANT;
+        }
+        if (piece.getKind() == PieceKind.PAWN && Math.abs(Bitboards.row(from) - Bitboards.row(to)) == 2) {
+            flags |= FLAG_DOUBLE_PUSH;
+        }
+
+        return encode(from, to, pieceCode(piece), pieceCode(move.getTakenPiece()),
+                move.isPromotion() ? move.getPromotionKind() : -1, flags);
+    }
+
+    /**
+     * Coordinate notation such as "e2e4" or "e7e8q"
+     */
+    public static String toString(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        String text = Position.ofSquare(from(move)).toString() + Position.ofSquare(to(move));
+        if (isPromotion(move)) {
+            text += PieceKind.of(promotionKind(move)).getLetter();
+        }
+        return text;
+    }
+}
@@ -0,0 +1,320 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth, for checking
+ * the move generator against known results and for measuring its speed.
+ *
+ * Counting runs on packed moves with make/unmake. Optionally, subtree counts
+ * are cached in a hash table keyed by Zobrist key and depth, and root moves
+ * are split across a fork/join pool, each worker searching its own board copy.
+ * Every run reports the count per root move ("divide") and nodes per second.
+ *
+ * Run the reference suite with: java Model.Perft [depth] [threads] [hashMB] [fen]
+ */
+public final class Perft {
+
+    /**
+     * A well-known test position with its published node counts, starting at depth 1
+     */
+    public static final class ReferencePosition {
+        private final String name;
+        private final String fen;
+        private final long[] nodeCounts;
+
+        ReferencePosition(String name, String fen, long... nodeCounts) {
+            this.name = name;
+            this.fen = fen;
+            this.nodeCounts = nodeCounts;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFen() {
+            return fen;
+        }
+
+        public int getMaxDepth() {
+            return nodeCounts.length;
+        }
+
+        public long getExpectedNodes(int depth) {
+            return nodeCounts[depth - 1];
+        }
+    }
+
+    public static final List<ReferencePosition> REFERENCE_POSITIONS = List.of(
+            new ReferencePosition("Initial position", Fen.START_POSITION,
+                    20L, 400L, 8902L, 197281L, 4865609L, 119060324L),
+            new ReferencePosition("Kiwipete",
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48L, 2039L, 97862L, 4085603L, 193690690L),
+            new ReferencePosition("Position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14L, 191L, 2812L, 43238L, 674624L, 11030083L),
+            new ReferencePosition("Position 4",
+                    "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6L, 264L, 9467L, 422333L, 15833292L),
+            new ReferencePosition("Position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44L, 1486L, 62379L, 2103487L, 89941194L),
+            new ReferencePosition("Position 6",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46L, 2079L, 89890L, 3894594L, 164075551L));
+
+    /**
+     * Node count of one run, with the count below each root move
+     */
+    public static final class Result {
+        private final int depth;
+        private final long nodes;
+        private final long nanos;
+        private final Map<String, Long> divide;
+
+        Result(int depth, long nodes, long nanos, Map<String, Long> divide) {
+            this.depth = depth;
+            this.nodes = nodes;
+            this.nanos = nanos;
+            this.divide = Collections.unmodifiableMap(divide);
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getNodesPerSecond() {
+            return nanos == 0 ? 0 : (long) (nodes * 1_000_000_000.0 / nanos);
+        }
+
+        // Leaf count under each root move, keyed by coordinate notation, in generation order
+        public Map<String, Long> getDivide() {
+            return divide;
+        }
+    }
+
+    private static final int MAX_DEPTH = 64;
+    private static final int HASH_ENTRY_BYTES = 16;
+
+    private final Board board;
+    private final MoveList[] moveLists = new MoveList[MAX_DEPTH];
+    private final HashTable table;
+
+    private Perft(Board board, HashTable table) {
+        this.board = board;
+        this.table = table;
+        for (int ply = 0; ply < MAX_DEPTH; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Count single-threaded without a hash table. The board is left unchanged.
+     */
+    public static Result run(Board board, int depth) {
+        return run(board, depth, 1, 0);
+    }
+
+    /**
+     * Count the leaf nodes below a board's position, for the side to move
+     *
+     * @param threads       worker threads; more than 1 splits the root moves across a fork/join pool
+     * @param hashMegabytes size of the subtree count cache, 0 for none
+     */
+    public static Result run(Board board, int depth, int threads, int hashMegabytes) {
+        if (depth < 0 || depth >= MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be between 0 and " + (MAX_DEPTH - 1));
+        }
+
+        long start = System.nanoTime();
+        HashTable table = hashMegabytes > 0 ? new HashTable(hashMegabytes) : null;
+        Map<String, Long> divide = new LinkedHashMap<>();
+
+        if (depth == 0) {
+            return new Result(0, 1, System.nanoTime() - start, divide);
+        }
+
+        MoveList rootMoves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), rootMoves);
+        long[] counts = new long[rootMoves.size()];
+
+        if (threads <= 1) {
+            Perft perft = new Perft(board, table);
+            for (int i = 0; i < rootMoves.size(); i++) {
+                board.makeMove(rootMoves.get(i));
+                counts[i] = perft.count(depth - 1, 1);
+                board.unmakeLastMove();
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                List<SubtreeTask> tasks = new ArrayList<>();
+                for (int i = 0; i < rootMoves.size(); i++) {
+                    tasks.add(new SubtreeTask(new Board(board), rootMoves.get(i), depth - 1, table));
+                }
+                pool.invoke(new RecursiveTask<Void>() {
+                    @Override
+                    protected Void compute() {
+                        invokeAll(tasks);
+                        return null;
+                    }
+                });
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = tasks.get(i).join();
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < counts.length; i++) {
+            divide.put(PackedMove.toString(rootMoves.get(i)), counts[i]);
+            nodes += counts[i];
+        }
+        return new Result(depth, nodes, System.nanoTime() - start, divide);
+    }
+
+    private long count(int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        long key = 0;
+        if (table != null && depth > 1) {
+            key = HashTable.key(board.getZobristKey(), depth);
+            long cached = table.probe(key);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        // Bulk count: the leaves are the legal moves themselves
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += count(depth - 1, ply + 1);
+            board.unmakeLastMove();
+        }
+
+        if (table != null) {
+            table.store(key, nodes);
+        }
+        return nodes;
+    }
+
+    // Counts the subtree under one root move on a private board copy
+    private static final class SubtreeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int move;
+        private final int depth;
+        private final HashTable table;
+
+        SubtreeTask(Board board, int move, int depth, HashTable table) {
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+            this.table = table;
+        }
+
+        @Override
+        protected Long compute() {
+            board.makeMove(move);
+            return new Perft(board, table).count(depth, 1);
+        }
+    }
+
+    /**
+     * Subtree counts by position and depth, shared by all workers without locks.
+     * Each slot holds (key ^ count, count); a torn write by a racing thread fails
+     * the XOR check and reads as a miss.
+     */
+    private static final class HashTable {
+        private final long[] checks;
+        private final long[] counts;
+        private final int mask;
+
+        HashTable(int megabytes) {
+            long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / HASH_ENTRY_BYTES);
+            int size = (int) Math.min(entries, 1 << 30);
+            checks = new long[size];
+            counts = new long[size];
+            mask = size - 1;
+        }
+
+        // Mix the depth into the position key so one position can be cached at several depths
+        static long key(long zobristKey, int depth) {
+            return zobristKey ^ (depth * 0x9E3779B97F4A7C15L);
+        }
+
+        // Cached count, or -1 on a miss
+        long probe(long key) {
+            int index = (int) key & mask;
+            long count = counts[index];
+            return (checks[index] ^ count) == key ? count : -1;
+        }
+
+        void store(long key, long count) {
+            int index = (int) key & mask;
+            checks[index] = key ^ count;
+            counts[index] = count;
+        }
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int hashMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        if (args.length > 3) {
+            // Divide a single position
+            String fen = String.join(" ", List.of(args).subList(3, args.length));
+            Result result = run(Fen.toBoard(fen), depth, threads, hashMegabytes);
+            for (Map.Entry<String, Long> entry : result.getDivide().entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+            }
+            System.out.println();
+            printResult(fen, result, -1);
+            return;
+        }
+
+        boolean allPassed = true;
+        for (ReferencePosition position : REFERENCE_POSITIONS) {
+            int positionDepth = Math.min(depth, position.getMaxDepth());
+            Result result = run(Fen.toBoard(position.getFen()), positionDepth, threads, hashMegabytes);
+            long expected = position.getExpectedNodes(positionDepth);
+            printResult(position.getName(), result, expected);
+            allPassed &= result.getNodes() == expected;
+        }
+        System.out.println(allPassed ? "All counts match" : "COUNT MISMATCH");
+    }
+
+    private static void printResult(String name, Result result, long expected) {
+        String status = expected < 0 ? "" : result.getNodes() == expected ? "  ok" : "  expected " + expected;
+        System.out.printf("%-18s depth %d  %,15d nodes  %,8d ms  %,12d nps%s%n", name, result.getDepth(),
+                result.getNodes(), result.getNanos() / 1_000_000, result.getNodesPerSecond(), status);
+    }
+}
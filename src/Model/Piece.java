@@ -1,17 +1,17 @@
 package Model;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public abstract class Piece {
     private final int color;
     private Position position;
-    private final String pieceImage;
     private boolean hasMoved; // Track if the piece has moved (useful for pawns, rooks, kings)
+    int listIndex = -1; // Slot in the board's PieceList, -1 when not on a board
 
     public Piece(int color, Position position) {
         this.color = color;
         this.position = position;
-        this.pieceImage = generateImagePath();
         this.hasMoved = false;
     }
 
@@ -19,16 +19,9 @@ public abstract class Piece {
     protected Piece(int color, Position position, boolean hasMoved) {
         this.color = color;
         this.position = position;
-        this.pieceImage = generateImagePath();
         this.hasMoved = hasMoved;
     }
 
-    protected String generateImagePath() {
-        String colorPrefix = (color == PieceColor.WHITE) ? "white" : "black";
-        String pieceType = getType().toLowerCase();
-        return "resources/pieces/" + colorPrefix + "_" + pieceType + ".png";
-    }
-
     public int getColor() {
         return color;
     }
@@ -42,7 +35,7 @@ public abstract class Piece {
     }
 
     public String getPieceImage() {
-        return pieceImage;
+        return getKind().getImagePath(color);
     }
 
     public boolean hasMoved() {
@@ -63,10 +56,17 @@ public abstract class Piece {
      */
     public abstract List<Position> getAttackPositions(Board board);
 
+    /**
+     * Get the kind of piece, for switch and table dispatch
+     */
+    public abstract PieceKind getKind();
+
     /**
      * Get the piece type name
      */
-    public abstract String getType();
+    public String getType() {
+        return getKind().getTypeName();
+    }
 
     public boolean moveTo(Position position) {
         Position oldPosition = this.position;
@@ -76,28 +76,55 @@ public abstract class Piece {
     }
 
     /**
-     * Check if the move would leave the king in check
+     * Get the legal destinations from a set of attacked squares for a non-king piece
      */
-    protected boolean wouldMakeOwnKingVulnerable(Board board, Move move) {
-        // Create a temporary board to simulate the move
-        Board tempBoard = new Board(board);
+    protected long legalTargets(Board board, long attacks) {
+        long targets = attacks & ~board.getColorMask(color);
+        return board.getLegalityMasks(color).restrict(Bitboards.square(position), targets);
+    }
 
-        // Find the same piece on the copied board
-        Piece tempPiece = tempBoard.getPiece(move.getOrigin());
+    /**
+     * Add a move to every square in the mask, capturing whatever stands there
+     */
+    protected void addMovesToTargets(Board board, long targets, List<Move> moves) {
+        while (targets != 0) {
+            int square = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            Position target = Position.ofSquare(square);
+            moves.add(Move.createMove(position, target, this, board.getPiece(target)));
+        }
+    }
 
-        // Create a move for the temporary board
-        Move tempMove = Move.createMove(
-                move.getOrigin(),
-                move.getDestination(),
-                tempPiece,
-                tempBoard.getPiece(move.getDestination())
-        );
+    /**
+     * Convert a square mask into a list of positions
+     */
+    protected static List<Position> toPositions(long squares) {
+        List<Position> positions = new ArrayList<>(Long.bitCount(squares));
+        while (squares != 0) {
+            int square = Bitboards.lowestSquare(squares);
+            squares &= squares - 1;
+            positions.add(Position.ofSquare(square));
+        }
+        return positions;
+    }
 
-        // Execute the move on the temporary board
-        tempBoard.executeMove(tempMove);
+    /**
+     * Check if moving to the target keeps our king safe, using the board's pin and check masks
+     */
+    protected boolean isLegalDestination(Board board, Position target) {
+        LegalityMasks masks = board.getLegalityMasks(color);
+        return masks.allows(Bitboards.square(position), Bitboards.square(target));
+    }
 
-        // Check if the king is in check after the move
-        return tempBoard.isKingInCheck(this.getColor());
+    /**
+     * Check if the move would leave the king in check
+     */
+    protected boolean wouldMakeOwnKingVulnerable(Board board, Move move) {
+        // Play the move in place, test the king, then take the move back
+        MoveUndo undo = board.makeMove(move);
+        boolean kingInCheck = board.isKingInCheck(this.getColor());
+        board.unmakeMove(undo);
+        return kingInCheck;
     }
 
     /**
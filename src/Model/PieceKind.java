@@ -0,0 +1,55 @@
+package Model;
+
+/**
+ * The six kinds of chess piece. Ordinals match the Bitboards kind indices
+ * (PAWN = 0 ... KING = 5), so a kind can index tables directly.
+ *
+ * Each constant also holds the shared display data for its kind (type name
+ * and image paths), so pieces do not build strings of their own.
+ */
+public enum PieceKind {
+    PAWN("Pawn", 'p', "assets/wpawn.png", "assets/bpawn.png"),
+    KNIGHT("Knight", 'n', "images/wn.png", "images/bn.png"),
+    BISHOP("Bishop", 'b', "images/wb.png", "images/bb.png"),
+    ROOK("Rook", 'r', "assets/wrook.png", "assets/brook.png"),
+    QUEEN("Queen", 'q', "assets/wqueen.png", "assets/bqueen.png"),
+    KING("King", 'k', "images/wk.png", "images/bk.png");
+
+    private static final PieceKind[] VALUES = values();
+
+    private final String typeName;
+    private final char letter;
+    // Indexed by color (BLACK = 0, WHITE = 1)
+    private final String[] imagePaths;
+
+    PieceKind(String typeName, char letter, String whiteImagePath, String blackImagePath) {
+        this.typeName = typeName;
+        this.letter = letter;
+        this.imagePaths = new String[]{blackImagePath, whiteImagePath};
+    }
+
+    /**
+     * Get the kind with the given ordinal (Bitboards kind index)
+     */
+    public static PieceKind of(int index) {
+        return VALUES[index];
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    // Lowercase letter used in coordinate and FEN notation
+    public char getLetter() {
+        return letter;
+    }
+
+    public String getImagePath(int color) {
+        return imagePaths[color];
+    }
+
+    // Bishops, rooks and queens attack along lines that other pieces can block
+    public boolean isSlider() {
+        return this == BISHOP || this == ROOK || this == QUEEN;
+    }
+}
@@ -0,0 +1,112 @@
+package Model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * One side's pieces in a fixed array. Each piece remembers its slot, so a
+ * capture is removed in O(1) by moving the last piece into the gap, and the
+ * removal can be undone exactly. Outside Board the list is read-only.
+ */
+final class PieceList extends AbstractList<Piece> implements RandomAccess {
+    private Piece[] pieces = new Piece[16];
+    private int size;
+
+    @Override
+    public Piece get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return pieces[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    void append(Piece piece) {
+        ensureSpace();
+        piece.listIndex = size;
+        pieces[size++] = piece;
+    }
+
+    /**
+     * Remove a piece by moving the last piece into its slot
+     *
+     * @return the slot the piece occupied, or -1 if it is not in this list
+     */
+    int swapRemove(Piece piece) {
+        int index = slotOf(piece);
+        if (index < 0) {
+            return -1;
+        }
+        int last = --size;
+        Piece moved = pieces[last];
+        pieces[index] = moved;
+        moved.listIndex = index;
+        pieces[last] = null;
+        piece.listIndex = -1;
+        return index;
+    }
+
+    /**
+     * Undo swapRemove, putting every piece back in its original slot
+     */
+    void restore(int index, Piece piece) {
+        ensureSpace();
+        if (index < size) {
+            Piece moved = pieces[index];
+            pieces[size] = moved;
+            moved.listIndex = size;
+        }
+        pieces[index] = piece;
+        piece.listIndex = index;
+        size++;
+    }
+
+    /**
+     * Put a piece in the slot of another, as when a pawn promotes
+     *
+     * @return the slot, or -1 if the old piece is not in this list
+     */
+    int replace(Piece oldPiece, Piece newPiece) {
+        int index = slotOf(oldPiece);
+        if (index >= 0) {
+            pieces[index] = newPiece;
+            newPiece.listIndex = index;
+            oldPiece.listIndex = -1;
+        }
+        return index;
+    }
+
+    void reset() {
+        for (int i = 0; i < size; i++) {
+            pieces[i].listIndex = -1;
+            pieces[i] = null;
+        }
+        size = 0;
+    }
+
+    private void ensureSpace() {
+        if (size == pieces.length) {
+            Piece[] grown = new Piece[pieces.length * 2];
+            System.arraycopy(pieces, 0, grown, 0, size);
+            pieces = grown;
+        }
+    }
+
+    private int slotOf(Piece piece) {
+        int index = piece.listIndex;
+        if (index >= 0 && index < size && pieces[index] == piece) {
+            return index;
+        }
+        // The slot hint is stale if the piece was also placed on another board
+        for (int i = 0; i < size; i++) {
+            if (pieces[i] == piece) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,6 +1,18 @@
 package Model;
 
 public class Position {
+    // Shared instances for the 64 board squares, indexed by row * 8 + column
+    private static final Position[] SQUARES = new Position[64];
+
+    // Returned for any coordinates off the board; isValid() is false
+    public static final Position OFF_BOARD = new Position(-1, -1);
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new Position(square & 7, square >>> 3);
+        }
+    }
+
     private final int column;
     private final int row;
 
@@ -9,6 +21,23 @@ public class Position {
         this.row = row;
     }
 
+    /**
+     * Get the shared instance for a square, or OFF_BOARD if it is not on the board
+     */
+    public static Position of(int column, int row) {
+        if (column < 0 || column >= 8 || row < 0 || row >= 8) {
+            return OFF_BOARD;
+        }
+        return SQUARES[row * 8 + column];
+    }
+
+    /**
+     * Get the shared instance for a square index (row * 8 + column)
+     */
+    public static Position ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     public int getColumn() {
         return column;
     }
@@ -17,9 +46,14 @@ public class Position {
         return row;
     }
 
-    // Create a new position with offset
+    // Square index (row * 8 + column); only meaningful for valid positions
+    public int getSquare() {
+        return row * 8 + column;
+    }
+
+    // Get the shared position at an offset, or OFF_BOARD if it leaves the board
     public Position offset(int colOffset, int rowOffset) {
-        return new Position(column + colOffset, row + rowOffset);
+        return of(column + colOffset, row + rowOffset);
     }
 
     // Check if position is within chess board bounds
@@ -46,4 +80,4 @@ public class Position {
         int rank = 8 - row;
         return "" + file + rank;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,218 @@
+package Model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Large collections of positions stored off the Java heap, 32 bytes each,
+ * for opening trees and data sets with tens of millions of entries. Memory
+ * comes from direct buffers allocated in 32 MB chunks, so the heap and GC
+ * work stay flat however many positions are added. Nothing is allocated
+ * until the first append; the first chunk starts at 128 KB and doubles until
+ * it reaches full size, so small arenas stay small.
+ *
+ * Record layout (little-endian):
+ *   0-7   occupancy bitboard
+ *   8-23  piece codes (see PackedMove), one 4-bit code per occupied square
+ *         in increasing square order; 32 pieces at most
+ *   24-31 state: bit 0 white to move, bits 1-4 castling rights (Zobrist flags),
+ *         bits 5-11 en passant square + 1 (0 when none); other bits unused
+ *
+ * Not thread-safe for writers; readers may share an arena once it is filled.
+ */
+public final class PositionArena {
+    public static final int POSITION_BYTES = 32;
+
+    // 2^20 positions (32 MB) per chunk
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_POSITIONS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_POSITIONS - 1;
+    // 4096 positions (128 KB) in the first chunk before it grows
+    private static final int FIRST_CHUNK_POSITIONS = 1 << 12;
+
+    private static final int MAX_PIECES = 32;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long size;
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Pack a board and append it
+     *
+     * @return the index of the new position
+     * @throws IllegalArgumentException if the board has more than 32 pieces
+     */
+    public long append(Board board) {
+        long occupancy = board.getOccupancy();
+        if (Long.bitCount(occupancy) > MAX_PIECES) {
+            throw new IllegalArgumentException("Cannot pack more than " + MAX_PIECES + " pieces");
+        }
+
+        long lowCodes = 0L;
+        long highCodes = 0L;
+        int slot = 0;
+        long squares = occupancy;
+        while (squares != 0) {
+            int square = Bitboards.lowestSquare(squares);
+            squares &= squares - 1;
+            long code = board.getPieceCode(square);
+            if (slot < 16) {
+                lowCodes |= code << (slot * 4);
+            } else {
+                highCodes |= code << ((slot - 16) * 4);
+            }
+            slot++;
+        }
+
+        long state = (board.getSideToMove() == PieceColor.WHITE ? 1L : 0L)
+                | ((long) Zobrist.castlingRights(board) << 1)
+                | ((long) (board.getEnPassantSquare() + 1) << 5);
+
+        return appendRecord(occupancy, lowCodes, highCodes, state);
+    }
+
+    /**
+     * Append many boards in order
+     *
+     * @return the index of the first appended position
+     */
+    public long appendAll(Iterable<Board> boards) {
+        long first = size;
+        for (Board board : boards) {
+            append(board);
+        }
+        return first;
+    }
+
+    /**
+     * Copy a range of packed positions from another arena without unpacking them
+     *
+     * @return the index of the first appended position
+     */
+    public long appendAll(PositionArena source, long start, long count) {
+        long first = size;
+        for (long index = start; index < start + count; index++) {
+            ByteBuffer chunk = source.chunkFor(index);
+            int offset = offsetOf(index);
+            appendRecord(chunk.getLong(offset), chunk.getLong(offset + 8),
+                    chunk.getLong(offset + 16), chunk.getLong(offset + 24));
+        }
+        return first;
+    }
+
+    public long getOccupancy(long index) {
+        return chunkFor(index).getLong(offsetOf(index));
+    }
+
+    /**
+     * Get the packed piece code on a square of a stored position, 0 if empty
+     */
+    public int getPieceCode(long index, int square) {
+        ByteBuffer chunk = chunkFor(index);
+        int offset = offsetOf(index);
+        long occupancy = chunk.getLong(offset);
+        if ((occupancy & Bitboards.bit(square)) == 0) {
+            return 0;
+        }
+        // The code's slot is the number of occupied squares below this one
+        int slot = Long.bitCount(occupancy & (Bitboards.bit(square) - 1));
+        long codes = chunk.getLong(offset + (slot < 16 ? 8 : 16));
+        return (int) (codes >>> ((slot & 15) * 4)) & 15;
+    }
+
+    public int getSideToMove(long index) {
+        return (state(index) & 1) != 0 ? PieceColor.WHITE : PieceColor.BLACK;
+    }
+
+    public int getCastlingRights(long index) {
+        return (int) (state(index) >>> 1) & 15;
+    }
+
+    public int getEnPassantSquare(long index) {
+        return ((int) (state(index) >>> 5) & 127) - 1;
+    }
+
+    /**
+     * Unpack a stored position into a new board
+     */
+    public Board toBoard(long index) {
+        Board board = new Board();
+        loadInto(index, board);
+        return board;
+    }
+
+    /**
+     * Unpack a stored position into an existing board, replacing its contents
+     */
+    public void loadInto(long index, Board board) {
+        ByteBuffer chunk = chunkFor(index);
+        int offset = offsetOf(index);
+        long occupancy = chunk.getLong(offset);
+        long lowCodes = chunk.getLong(offset + 8);
+        long highCodes = chunk.getLong(offset + 16);
+
+        int[] squareCodes = new int[64];
+        int slot = 0;
+        while (occupancy != 0) {
+            int square = Bitboards.lowestSquare(occupancy);
+            occupancy &= occupancy - 1;
+            long codes = slot < 16 ? lowCodes : highCodes;
+            squareCodes[square] = (int) (codes >>> ((slot & 15) * 4)) & 15;
+            slot++;
+        }
+
+        board.loadPosition(squareCodes, getSideToMove(index), getCastlingRights(index), getEnPassantSquare(index));
+    }
+
+    /**
+     * Drop all positions, keeping the allocated chunks for reuse
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private long appendRecord(long occupancy, long lowCodes, long highCodes, long state) {
+        long index = size;
+        int chunkIndex = (int) (index >>> CHUNK_SHIFT);
+        int offset = offsetOf(index);
+        if (chunkIndex == chunks.size()) {
+            chunks.add(allocate(chunks.isEmpty() ? FIRST_CHUNK_POSITIONS : CHUNK_POSITIONS));
+        } else if (offset == chunks.get(chunkIndex).capacity()) {
+            // Only the first chunk starts small
+            ByteBuffer grown = allocate(Math.min(offset / POSITION_BYTES * 2, CHUNK_POSITIONS));
+            grown.put(chunks.get(chunkIndex).duplicate().clear());
+            chunks.set(chunkIndex, grown);
+        }
+        ByteBuffer chunk = chunks.get(chunkIndex);
+        chunk.putLong(offset, occupancy);
+        chunk.putLong(offset + 8, lowCodes);
+        chunk.putLong(offset + 16, highCodes);
+        chunk.putLong(offset + 24, state);
+        size++;
+        return index;
+    }
+
+    private static ByteBuffer allocate(int positions) {
+        return ByteBuffer.allocateDirect(positions * POSITION_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private long state(long index) {
+        return chunkFor(index).getLong(offsetOf(index) + 24);
+    }
+
+    private ByteBuffer chunkFor(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return chunks.get((int) (index >>> CHUNK_SHIFT));
+    }
+
+    private static int offsetOf(long index) {
+        return (int) (index & CHUNK_MASK) * POSITION_BYTES;
+    }
+}
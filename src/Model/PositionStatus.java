@@ -0,0 +1,60 @@
+package Model;
+
+/**
+ * Game-end facts about one side in one position, computed together in a single
+ * pass: whether the side is in check, whether it has any legal move, and
+ * whether the material left is too little to mate. Board caches one per side
+ * until the position changes.
+ */
+public final class PositionStatus {
+    private final int version;
+    private final int color;
+    private final boolean inCheck;
+    private final boolean hasLegalMove;
+    private final boolean insufficientMaterial;
+
+    private PositionStatus(int version, int color, boolean inCheck, boolean hasLegalMove,
+                           boolean insufficientMaterial) {
+        this.version = version;
+        this.color = color;
+        this.inCheck = inCheck;
+        this.hasLegalMove = hasLegalMove;
+        this.insufficientMaterial = insufficientMaterial;
+    }
+
+    static PositionStatus compute(Board board, int color, int version) {
+        return new PositionStatus(version, color,
+                board.isKingInCheck(color),
+                board.hasAnyLegalMove(color),
+                MaterialKey.isInsufficientMaterial(board.getMaterialKey()));
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    // The side this status describes
+    public int getColor() {
+        return color;
+    }
+
+    public boolean isInCheck() {
+        return inCheck;
+    }
+
+    public boolean hasLegalMove() {
+        return hasLegalMove;
+    }
+
+    public boolean isCheckmate() {
+        return inCheck && !hasLegalMove;
+    }
+
+    public boolean isStalemate() {
+        return !inCheck && !hasLegalMove;
+    }
+
+    public boolean isInsufficientMaterial() {
+        return insufficientMaterial;
+    }
+}
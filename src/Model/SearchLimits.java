@@ -0,0 +1,64 @@
+package Model;
+
+/**
+ * When an engine search must stop: after a depth, a node count or a time,
+ * whichever comes first. Immutable; start from one limit and add others,
+ * e.g. SearchLimits.time(1000).withDepth(8).
+ */
+public final class SearchLimits {
+    public static final int MAX_DEPTH = 64;
+
+    private static final SearchLimits NONE = new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final int depth;
+    private final long nodes;
+    private final long millis;
+
+    private SearchLimits(int depth, long nodes, long millis) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.millis = millis;
+    }
+
+    // Search until stopped, or to the maximum depth
+    public static SearchLimits infinite() {
+        return NONE;
+    }
+
+    public static SearchLimits depth(int depth) {
+        return NONE.withDepth(depth);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return NONE.withNodes(nodes);
+    }
+
+    public static SearchLimits time(long millis) {
+        return NONE.withTime(millis);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(Math.max(1, Math.min(depth, MAX_DEPTH)), nodes, millis);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, Math.max(1, nodes), millis);
+    }
+
+    public SearchLimits withTime(long millis) {
+        return new SearchLimits(depth, nodes, Math.max(1, millis));
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    // Time budget in milliseconds, Long.MAX_VALUE when unlimited
+    public long getMillis() {
+        return millis;
+    }
+}
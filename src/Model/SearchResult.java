@@ -0,0 +1,96 @@
+package Model;
+
+/**
+ * Outcome of an engine search: the best move and score of the deepest
+ * completed iteration, its principal variation, and search statistics.
+ */
+public final class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long nanos;
+    private final int[] principalVariation;
+    private final double branchingFactor;
+
+    SearchResult(int bestMove, int score, int depth, long nodes, long nanos, int[] principalVariation,
+                 double branchingFactor) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+        this.principalVariation = principalVariation;
+        this.branchingFactor = branchingFactor;
+    }
+
+    // Packed best move, or PackedMove.NONE if the side to move has no legal move
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    // Centipawns for the side to move; beyond +/- Engine.MATE_BOUND it is a forced mate
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isMateScore() {
+        return Math.abs(score) >= Engine.MATE_BOUND;
+    }
+
+    // Moves until mate, negative when the side to move is being mated; 0 if not a mate score
+    public int getMateIn() {
+        if (!isMateScore()) {
+            return 0;
+        }
+        int plies = Engine.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    // Deepest fully completed iteration
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getNodesPerSecond() {
+        return nanos == 0 ? 0 : (long) (nodes * 1_000_000_000.0 / nanos);
+    }
+
+    /**
+     * Effective branching factor: nodes of the last completed iteration over
+     * nodes of the one before, 0 if fewer than two iterations completed.
+     * Better move ordering brings it down toward the square root of the
+     * number of legal moves.
+     */
+    public double getEffectiveBranchingFactor() {
+        return branchingFactor;
+    }
+
+    // Expected line of play from the root, as packed moves
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("depth ").append(depth)
+                .append(isMateScore() ? " mate " + getMateIn() : " cp " + score)
+                .append(" nodes ").append(nodes)
+                .append(" nps ").append(getNodesPerSecond())
+                .append(String.format(" ebf %.2f", branchingFactor))
+                .append(" pv");
+        for (int move : principalVariation) {
+            text.append(' ').append(PackedMove.toString(move));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,156 @@
+package Model;
+
+/**
+ * Static exchange evaluation: the material balance of the full sequence of
+ * captures on one square, each side always recapturing with its least
+ * valuable attacker and free to stop when continuing would lose. Sliders
+ * behind a capturing piece join in as it leaves (x-rays). A pawn that
+ * captures onto the last rank is counted as promoting to a queen. Pins are
+ * ignored. Piece values are the evaluation's (Evaluation.pieceValue).
+ *
+ * Runs on the board's bitboards without making moves, so it is cheap enough
+ * to call for every capture in a search or for every piece the UI shows.
+ */
+public final class StaticExchange {
+    // Material a pawn gains by becoming a queen
+    private static final int PROMOTION_GAIN =
+            Evaluation.pieceValue(Bitboards.QUEEN) - Evaluation.pieceValue(Bitboards.PAWN);
+
+    private StaticExchange() {
+        // Utility class
+    }
+
+    /**
+     * Material the side making a packed move gains through the exchange it starts,
+     * in centipawns; negative when the move loses material
+     */
+    public static int evaluate(Board board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int color = PackedMove.codeColor(PackedMove.piece(move));
+
+        long occupied = board.getOccupancy() & ~Bitboards.bit(from);
+        int captured = PackedMove.captured(move);
+        int gain = captured == 0 ? 0 : Evaluation.pieceValue(PackedMove.codeKind(captured));
+        int pieceOnSquare = PackedMove.codeKind(PackedMove.piece(move));
+
+        if (PackedMove.isEnPassant(move)) {
+            int capturedSquare = to + (color == PieceColor.WHITE ? 8 : -8);
+            occupied &= ~Bitboards.bit(capturedSquare);
+            gain = Evaluation.pieceValue(Bitboards.PAWN);
+        }
+        if (PackedMove.isPromotion(move)) {
+            pieceOnSquare = PackedMove.promotionKind(move);
+            gain += Evaluation.pieceValue(pieceOnSquare) - Evaluation.pieceValue(Bitboards.PAWN);
+        }
+        if (PackedMove.isCastling(move)) {
+            return 0;
+        }
+
+        return exchange(board, to, PieceColor.opponent(color), occupied, gain, pieceOnSquare);
+    }
+
+    /**
+     * Check whether a move's exchange gains at least the threshold, e.g. 0 for "does not lose material"
+     */
+    public static boolean isAtLeast(Board board, int move, int threshold) {
+        return evaluate(board, move) >= threshold;
+    }
+
+    /**
+     * Check whether the piece on a square can be won: an enemy capture on it
+     * gains material through the exchange
+     */
+    public static boolean isHanging(Board board, int square) {
+        int code = board.getPieceCode(square);
+        if (code == 0 || PackedMove.codeKind(code) == Bitboards.KING) {
+            return false;
+        }
+
+        int enemy = PieceColor.opponent(PackedMove.codeColor(code));
+        long attackers = board.attackersTo(square, enemy, board.getOccupancy());
+        if (attackers == 0) {
+            return false;
+        }
+
+        int from = leastValuable(board, attackers, enemy);
+        int kind = PackedMove.codeKind(board.getPieceCode(from));
+        long occupied = board.getOccupancy() & ~Bitboards.bit(from);
+        int gain = Evaluation.pieceValue(PackedMove.codeKind(code));
+        if (promotes(kind, square)) {
+            gain += PROMOTION_GAIN;
+            kind = Bitboards.QUEEN;
+        }
+        return exchange(board, square, PackedMove.codeColor(code), occupied, gain, kind) > 0;
+    }
+
+    /**
+     * Squares of a side's pieces that are hanging, for highlighting in the UI
+     */
+    public static long getHangingPieces(Board board, int color) {
+        long hanging = 0L;
+        long pieces = board.getColorMask(color) & board.getAttackedSquares(PieceColor.opponent(color));
+        while (pieces != 0) {
+            int square = Bitboards.lowestSquare(pieces);
+            pieces &= pieces - 1;
+            if (isHanging(board, square)) {
+                hanging |= Bitboards.bit(square);
+            }
+        }
+        return hanging;
+    }
+
+    /**
+     * Resolve the captures on a square after the first one
+     *
+     * @param side          side to recapture next
+     * @param occupied      occupancy after the first capture
+     * @param firstGain     material won by the first capture
+     * @param pieceOnSquare kind of the piece that now stands on the square
+     */
+    private static int exchange(Board board, int square, int side, long occupied, int firstGain, int pieceOnSquare) {
+        return firstGain - recapture(board, square, side, occupied, pieceOnSquare);
+    }
+
+    /**
+     * Material a side wins by recapturing on a square and continuing the
+     * exchange, 0 when it is better off not recapturing. Recursive rather
+     * than a swap list so the search calls it without allocating.
+     */
+    private static int recapture(Board board, int square, int side, long occupied, int pieceOnSquare) {
+        long attackers = board.attackersTo(square, side, occupied) & occupied;
+        if (attackers == 0) {
+            return 0;
+        }
+        int from = leastValuable(board, attackers, side);
+        int kind = PackedMove.codeKind(board.getPieceCode(from));
+        occupied &= ~Bitboards.bit(from);
+
+        // The king can only take if the square is not defended
+        int opponent = PieceColor.opponent(side);
+        if (kind == Bitboards.KING && (board.attackersTo(square, opponent, occupied) & occupied) != 0) {
+            return 0;
+        }
+        int gain = Evaluation.pieceValue(pieceOnSquare);
+        if (promotes(kind, square)) {
+            gain += PROMOTION_GAIN;
+            kind = Bitboards.QUEEN;
+        }
+        return Math.max(0, gain - recapture(board, square, opponent, occupied, kind));
+    }
+
+    // A pawn can only capture onto its own last rank, so either edge rank means it promotes
+    private static boolean promotes(int kind, int square) {
+        return kind == Bitboards.PAWN && (square < 8 || square >= 56);
+    }
+
+    private static int leastValuable(Board board, long attackers, int color) {
+        for (int kind = Bitboards.PAWN; kind <= Bitboards.KING; kind++) {
+            long pieces = attackers & board.getPieceMask(color, kind);
+            if (pieces != 0) {
+                return Bitboards.lowestSquare(pieces);
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,179 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size cache of search results by Zobrist key, shared by any number of
+ * search threads without locks.
+ *
+ * The table is one long[] of 16-byte entries grouped in clusters of four
+ * (one 64-byte cache line). An entry is two longs, (key ^ data, data). A
+ * reader accepts an entry only if the two XOR back to its key, so an entry
+ * torn by a racing writer reads as a miss instead of as wrong data.
+ *
+ * Data layout (low to high bits):
+ *   0-25  best move (PackedMove), 0 if none
+ *   26-41 score + 32768
+ *   42-48 depth
+ *   49-50 bound (EXACT, LOWER or UPPER)
+ *   51-56 age: the search generation that wrote the entry
+ *
+ * Replacement keeps an entry for the same position unless the new result is
+ * shallower, and otherwise evicts the entry in the cluster with the least
+ * depth, counting entries from older searches as shallower.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;  // Score is at least the stored value (fail high)
+    public static final int UPPER = 3;  // Score is at most the stored value (fail low)
+
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int CLUSTER_SIZE = 4;
+
+    private static final int MOVE_MASK = (1 << 26) - 1;
+    private static final int SCORE_SHIFT = 26;
+    private static final int SCORE_OFFSET = 32768;
+    private static final int DEPTH_SHIFT = 42;
+    private static final int DEPTH_MASK = 127;
+    private static final int BOUND_SHIFT = 49;
+    private static final int AGE_SHIFT = 51;
+    private static final int AGE_MASK = 63;
+
+    // Each generation of age counts as this much depth when choosing an entry to evict
+    private static final int AGE_PENALTY = 8;
+
+    private final long[] entries;
+    private final int clusterMask;
+    private final int megabytes;
+    private volatile int generation;
+
+    public TranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * @param megabytes table size, rounded down to a power of two
+     */
+    public TranspositionTable(int megabytes) {
+        long clusters = Long.highestOneBit(Math.max(1L, (long) megabytes * 1024 * 1024
+                / (ENTRY_BYTES * CLUSTER_SIZE)));
+        // Java arrays hold at most 2^31 - 1 longs
+        clusters = Math.min(clusters, 1L << 27);
+        this.entries = new long[(int) clusters * CLUSTER_SIZE * 2];
+        this.clusterMask = (int) clusters - 1;
+        this.megabytes = (int) (clusters * CLUSTER_SIZE * ENTRY_BYTES / (1024 * 1024));
+    }
+
+    public int getMegabytes() {
+        return megabytes;
+    }
+
+    /**
+     * Start a new search generation, so entries from earlier searches are evicted first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Look up a position
+     *
+     * @return the entry's data, to be read with the static accessors, or 0 on a miss
+     */
+    public long probe(long key) {
+        int base = clusterIndex(key);
+        for (int slot = base; slot < base + CLUSTER_SIZE * 2; slot += 2) {
+            long data = entries[slot + 1];
+            if (data != 0 && (entries[slot] ^ data) == key) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Store a search result. Scores must already be adjusted so mates count from this position.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int base = clusterIndex(key);
+        int age = generation;
+        int victim = base;
+        int victimWorth = Integer.MAX_VALUE;
+
+        for (int slot = base; slot < base + CLUSTER_SIZE * 2; slot += 2) {
+            long data = entries[slot + 1];
+            if (data != 0 && (entries[slot] ^ data) == key) {
+                // Same position: keep a deeper result from this search
+                if (bound != EXACT && depth < depth(data) && age(data) == age) {
+                    return;
+                }
+                if (move == PackedMove.NONE) {
+                    move = move(data);
+                }
+                victim = slot;
+                break;
+            }
+
+            int worth = data == 0 ? Integer.MIN_VALUE
+                    : depth(data) - AGE_PENALTY * ((age - age(data)) & AGE_MASK);
+            if (worth < victimWorth) {
+                victim = slot;
+                victimWorth = worth;
+            }
+        }
+
+        long data = (move & MOVE_MASK)
+                | ((long) (score + SCORE_OFFSET) << SCORE_SHIFT)
+                | ((long) Math.min(depth, DEPTH_MASK) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) age << AGE_SHIFT);
+        entries[victim] = key ^ data;
+        entries[victim + 1] = data;
+    }
+
+    /**
+     * Share of the first thousand entries written by the current search, in permille
+     */
+    public int getUsagePermille() {
+        int used = 0;
+        int sampled = Math.min(1000, entries.length / 2);
+        for (int entry = 0; entry < sampled; entry++) {
+            long data = entries[entry * 2 + 1];
+            if (data != 0 && age(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sampled;
+    }
+
+    public static int move(long data) {
+        return (int) data & MOVE_MASK;
+    }
+
+    public static int score(long data) {
+        return (int) ((data >>> SCORE_SHIFT) & 0xFFFF) - SCORE_OFFSET;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & DEPTH_MASK;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    }
+
+    private int clusterIndex(long key) {
+        return ((int) key & clusterMask) * CLUSTER_SIZE * 2;
+    }
+}
@@ -0,0 +1,134 @@
+package Model;
+
+import Model.pieces.King;
+
+/**
+ * Random keys for Zobrist position hashing. A position's key is the XOR of
+ * one key per piece on its square, plus keys for the side to move, the
+ * castling rights and the en passant file. The keys come from a fixed seed,
+ * so a position hashes the same way in every run.
+ */
+public final class Zobrist {
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    // Indexed by packed piece code (see PackedMove) and square
+    private static final long[][] PIECE_SQUARE = new long[16][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long WHITE_TO_MOVE;
+
+    static {
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int code = 0; code < 16; code++) {
+            for (int square = 0; square < 64; square++) {
+                seed = nextRandom(seed);
+                PIECE_SQUARE[code][square] = code == 0 ? 0L : mix(seed);
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            seed = nextRandom(seed);
+            CASTLING[rights] = rights == 0 ? 0L : mix(seed);
+        }
+        for (int file = 0; file < 8; file++) {
+            seed = nextRandom(seed);
+            EN_PASSANT_FILE[file] = mix(seed);
+        }
+        seed = nextRandom(seed);
+        WHITE_TO_MOVE = mix(seed);
+    }
+
+    private Zobrist() {
+        // Utility class
+    }
+
+    public static long piece(int pieceCode, int square) {
+        return PIECE_SQUARE[pieceCode][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassantFile(int file) {
+        return EN_PASSANT_FILE[file];
+    }
+
+    public static long sideToMove(int color) {
+        return color == PieceColor.WHITE ? WHITE_TO_MOVE : 0L;
+    }
+
+    /**
+     * Castling rights as WHITE_KINGSIDE | ... flags, read from the kings' and corner rooks' hasMoved state
+     */
+    public static int castlingRights(Board board) {
+        return castlingRights(board, PieceColor.WHITE, WHITE_KINGSIDE, WHITE_QUEENSIDE)
+                | castlingRights(board, PieceColor.BLACK, BLACK_KINGSIDE, BLACK_QUEENSIDE);
+    }
+
+    private static int castlingRights(Board board, int color, int kingside, int queenside) {
+        King king = board.getKing(color);
+        if (king == null || king.getPosition() == null || king.hasMoved()) {
+            return 0;
+        }
+
+        int row = king.getPosition().getRow();
+        int rook = PackedMove.pieceCode(color, Bitboards.ROOK);
+        int rights = 0;
+        if (board.getPieceCode(Bitboards.square(7, row)) == rook
+                && !board.getPieceAt(Bitboards.square(7, row)).hasMoved()) {
+            rights |= kingside;
+        }
+        if (board.getPieceCode(Bitboards.square(0, row)) == rook
+                && !board.getPieceAt(Bitboards.square(0, row)).hasMoved()) {
+            rights |= queenside;
+        }
+        return rights;
+    }
+
+    /**
+     * Hash a board from scratch. Board keeps the same key up to date incrementally;
+     * this is for checking it and for boards built square by square.
+     */
+    public static long compute(Board board) {
+        long key = 0L;
+        for (int square = 0; square < 64; square++) {
+            key ^= PIECE_SQUARE[board.getPieceCode(square)][square];
+        }
+        return key ^ stateKey(board);
+    }
+
+    // Side to move, castling and en passant part of the key
+    static long stateKey(Board board) {
+        int sideToMove = board.getSideToMove();
+        long key = sideToMove(sideToMove) ^ CASTLING[castlingRights(board)];
+
+        // The en passant file only counts when a pawn can actually capture there
+        int enPassantSquare = board.getEnPassantSquare();
+        if (enPassantSquare >= 0) {
+            long capturers = Bitboards.PAWN_ATTACKS[PieceColor.opponent(sideToMove)][enPassantSquare]
+                    & board.getPieceMask(sideToMove, Bitboards.PAWN);
+            if (capturers != 0) {
+                key ^= EN_PASSANT_FILE[Bitboards.column(enPassantSquare)];
+            }
+        }
+        return key;
+    }
+
+    // xorshift64 step
+    private static long nextRandom(long x) {
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        return x;
+    }
+
+    // Final mixing so consecutive xorshift outputs are not correlated
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
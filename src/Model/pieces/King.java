@@ -16,11 +16,6 @@ public class King extends Piece {
         super(color, position, hasMoved);
     }
 
-    @Override
-    protected String generateImagePath() {
-        return getColor() == PieceColor.WHITE ? "images/wk.png" : "images/bk.png";
-    }
-
     @Override
     public List<Move> getLegalMoves(Board board) {
         List<Move> legalMoves = new ArrayList<>();
@@ -40,12 +35,9 @@ public class King extends Piece {
                 if (targetPos.isValid() && canMoveTo(board, targetPos)) {
                     Piece capturedPiece = board.getPiece(targetPos);
 
-                    // Create a move
-                    Move potentialMove = Move.createMove(currentPos, targetPos, this, capturedPiece);
-
-                    // Check if this move would leave our king in check
-                    if (!wouldMakeOwnKingVulnerable(board, potentialMove)) {
-                        legalMoves.add(potentialMove);
+                    // Check that the king would not be attacked on the target square
+                    if (isLegalDestination(board, targetPos)) {
+                        legalMoves.add(Move.createMove(currentPos, targetPos, this, capturedPiece));
                     }
                 }
             }
@@ -80,16 +72,16 @@ public class King extends Piece {
 
     private void checkKingsideCastling(Board board, List<Move> legalMoves, int row) {
         // Check if kingside rook is in place and hasn't moved
-        Position rookPos = new Position(7, row);
+        Position rookPos = Position.of(7, row);
         Piece rook = board.getPiece(rookPos);
 
-        if (rook != null && rook.getType().equals("Rook") &&
+        if (rook != null && rook.getKind() == PieceKind.ROOK &&
                 rook.getColor() == getColor() && !rook.hasMoved()) {
 
             // Check if squares between king and rook are empty
             boolean pathClear = true;
             for (int col = 5; col <= 6; col++) {
-                Position pos = new Position(col, row);
+                Position pos = Position.of(col, row);
                 if (board.getPiece(pos) != null) {
                     pathClear = false;
                     break;
@@ -103,7 +95,7 @@ public class King extends Piece {
             }
 
             if (pathClear) {
-                Position destination = new Position(6, row);
+                Position destination = Position.of(6, row);
                 legalMoves.add(Move.createCastling(getPosition(), destination, this));
             }
         }
@@ -111,16 +103,16 @@ public class King extends Piece {
 
     private void checkQueensideCastling(Board board, List<Move> legalMoves, int row) {
         // Check if queenside rook is in place and hasn't moved
-        Position rookPos = new Position(0, row);
+        Position rookPos = Position.of(0, row);
         Piece rook = board.getPiece(rookPos);
 
-        if (rook != null && rook.getType().equals("Rook") &&
+        if (rook != null && rook.getKind() == PieceKind.ROOK &&
                 rook.getColor() == getColor() && !rook.hasMoved()) {
 
             // Check if squares between king and rook are empty
             boolean pathClear = true;
             for (int col = 1; col <= 3; col++) {
-                Position pos = new Position(col, row);
+                Position pos = Position.of(col, row);
                 if (board.getPiece(pos) != null) {
                     pathClear = false;
                     break;
@@ -134,24 +126,21 @@ public class King extends Piece {
             }
 
             if (pathClear) {
-                Position destination = new Position(2, row);
+                Position destination = Position.of(2, row);
                 legalMoves.add(Move.createCastling(getPosition(), destination, this));
             }
         }
     }
 
     private boolean isSquareUnderAttack(Board board, Position position) {
-        int opponentColor = (getColor() == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
-        List<Piece> opponentPieces = board.getPiecesByColor(opponentColor);
-
-        for (Piece piece : opponentPieces) {
-            List<Position> attackPositions = piece.getAttackPositions(board);
-            if (attackPositions.contains(position)) {
-                return true;
-            }
-        }
+        int opponentColor = PieceColor.opponent(getColor());
+        return board.isAttacked(Bitboards.square(position), opponentColor);
+    }
 
-        return false;
+    @Override
+    protected boolean isLegalDestination(Board board, Position target) {
+        // The king is never pinned; it only has to avoid attacked squares
+        return board.isSafeKingDestination(this, Bitboards.square(target));
     }
 
     @Override
@@ -179,8 +168,8 @@ public class King extends Piece {
     }
 
     @Override
-    public String getType() {
-        return "King";
+    public PieceKind getKind() {
+        return PieceKind.KING;
     }
 
     @Override
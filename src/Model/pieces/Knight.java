@@ -17,11 +17,6 @@ public class Knight extends Piece {
         super(color, position, hasMoved);
     }
 
-    @Override
-    protected String generateImagePath() {
-        return getColor() == PieceColor.WHITE ? "images/wn.png" : "images/bn.png";
-    }
-
     @Override
     public List<Move> getLegalMoves(Board board) {
         List<Move> legalMoves = new ArrayList<>();
@@ -41,17 +36,9 @@ public class Knight extends Piece {
             if (targetPos.isValid() && canMoveTo(board, targetPos)) {
                 Piece capturedPiece = board.getPiece(targetPos);
 
-                // Create a potential move
-                Move potentialMove = Move.createMove(
-                        currentPos,
-                        targetPos,
-                        this,
-                        capturedPiece
-                );
-
                 // Only add the move if it doesn't leave our king in check
-                if (!wouldMakeOwnKingVulnerable(board, potentialMove)) {
-                    legalMoves.add(potentialMove);
+                if (isLegalDestination(board, targetPos)) {
+                    legalMoves.add(Move.createMove(currentPos, targetPos, this, capturedPiece));
                 }
             }
         }
@@ -84,8 +71,8 @@ public class Knight extends Piece {
     }
 
     @Override
-    public String getType() {
-        return "Knight";
+    public PieceKind getKind() {
+        return PieceKind.KNIGHT;
     }
 
     @Override
@@ -16,13 +16,8 @@ public class Pawn extends Piece {
     }
 
     @Override
-    protected String generateImagePath() {
-        return getColor() == PieceColor.WHITE ? "assets/wpawn.png" : "assets/bpawn.png";
-    }
-
-    @Override
-    public String getType() {
-        return "Pawn";
+    public PieceKind getKind() {
+        return PieceKind.PAWN;
     }
 
     @Override
@@ -76,13 +71,18 @@ public class Pawn extends Piece {
     private void tryAddMove(Board board, Position from, Position to, Piece capturedPiece, List<Move> moves) {
         boolean isPromotion = isPromotionRank(to.getRow());
 
-        Move move = isPromotion ?
-                Move.createPromotion(from, to, this, capturedPiece) :
-                Move.createMove(from, to, this, capturedPiece);
-
         // Check if this move would leave our king in check
-        if (!wouldMakeOwnKingVulnerable(board, move)) {
-            moves.add(move);
+        if (!isLegalDestination(board, to)) {
+            return;
+        }
+
+        if (!isPromotion) {
+            moves.add(Move.createMove(from, to, this, capturedPiece));
+            return;
+        }
+        // One move per piece the pawn can become, queen first
+        for (int kind = Bitboards.QUEEN; kind >= Bitboards.KNIGHT; kind--) {
+            moves.add(Move.createPromotion(from, to, this, capturedPiece, kind));
         }
     }
 
@@ -92,44 +92,37 @@ public class Pawn extends Piece {
     }
 
     private void tryEnPassantCapture(Board board, List<Move> moves) {
-        Move lastMove = board.getLastMove();
-        if (lastMove == null) {
+        int enPassantSquare = board.getEnPassantSquare();
+        if (enPassantSquare < 0) {
             return;
         }
 
-        // Check if last move was a two-square pawn advance
-        Piece lastMovedPiece = lastMove.getMovingPiece();
-        if (!(lastMovedPiece instanceof Pawn)) {
+        // Check if our pawn attacks the square the opponent's pawn skipped
+        Position myPosition = getPosition();
+        int mySquare = myPosition.getSquare();
+        if ((Bitboards.PAWN_ATTACKS[getColor()][mySquare] & Bitboards.bit(enPassantSquare)) == 0) {
             return;
         }
 
-        Position start = lastMove.getOrigin();
-        Position end = lastMove.getDestination();
-        if (Math.abs(start.getRow() - end.getRow()) != 2) {
+        // The pawn that made the double push stands beside ours
+        Position capturePosition = Position.ofSquare(enPassantSquare);
+        Piece passedPawn = board.getPiece(Position.of(capturePosition.getColumn(), myPosition.getRow()));
+        if (!(passedPawn instanceof Pawn) || passedPawn.getColor() == getColor()) {
             return;
         }
 
-        Position myPosition = getPosition();
-        // Check if our pawn is adjacent to the opponent's pawn
-        if (myPosition.getRow() == end.getRow() &&
-                Math.abs(myPosition.getColumn() - end.getColumn()) == 1) {
-
-            // Determine where our pawn would move to
-            int captureRow = myPosition.getRow() + (getColor() == PieceColor.WHITE ? -1 : 1);
-            Position capturePosition = new Position(end.getColumn(), captureRow);
-
-            // Create an en passant move
-            Move enPassantMove = Move.createEnPassant(
-                    myPosition,
-                    capturePosition,
-                    this,
-                    lastMovedPiece
-            );
-
-            // Verify this move doesn't leave king in check
-            if (!wouldMakeOwnKingVulnerable(board, enPassantMove)) {
-                moves.add(enPassantMove);
-            }
+        // Create an en passant move
+        Move enPassantMove = Move.createEnPassant(
+                myPosition,
+                capturePosition,
+                this,
+                passedPawn
+        );
+
+        // En passant lifts two pawns off one row, which the pin masks cannot see,
+        // so verify this rare move by playing it
+        if (!wouldMakeOwnKingVulnerable(board, enPassantMove)) {
+            moves.add(enPassantMove);
         }
     }
 
@@ -158,9 +151,7 @@ public class Pawn extends Piece {
 
     @Override
     public Piece duplicate() {
-        return new Pawn(getColor(),
-                getPosition() != null ? new Position(getPosition().getColumn(), getPosition().getRow()) : null,
-                hasMoved());
+        return new Pawn(getColor(), getPosition(), hasMoved());
     }
 
     @Override
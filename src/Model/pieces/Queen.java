@@ -5,18 +5,6 @@ import java.util.List;
 import Model.*;
 
 public class Queen extends Piece {
-    // Queen moves in 8 directions: horizontal, vertical, and diagonal
-    private static final int[][] MOVEMENT_VECTORS = {
-            {0, -1},  // North
-            {1, -1},  // Northeast
-            {1, 0},   // East
-            {1, 1},   // Southeast
-            {0, 1},   // South
-            {-1, 1},  // Southwest
-            {-1, 0},  // West
-            {-1, -1}  // Northwest
-    };
-
     public Queen(int color, Position position) {
         super(color, position);
     }
@@ -27,13 +15,8 @@ public class Queen extends Piece {
     }
 
     @Override
-    protected String generateImagePath() {
-        return getColor() == PieceColor.WHITE ? "assets/wqueen.png" : "assets/bqueen.png";
-    }
-
-    @Override
-    public String getType() {
-        return "Queen";
+    public PieceKind getKind() {
+        return PieceKind.QUEEN;
     }
 
     @Override
@@ -43,93 +26,26 @@ public class Queen extends Piece {
 
         if (start == null) return validMoves;
 
-        // Explore all eight directions
-        for (int[] direction : MOVEMENT_VECTORS) {
-            traceMovementPath(board, start, direction[0], direction[1], validMoves);
-        }
+        // Rook and bishop lookups together cover all eight directions
+        long attacks = Bitboards.queenAttacks(Bitboards.square(start), board.getOccupancy());
+        addMovesToTargets(board, legalTargets(board, attacks), validMoves);
 
         return validMoves;
     }
 
-    private void traceMovementPath(Board board, Position start, int colStep, int rowStep, List<Move> moves) {
-        Position current = start;
-
-        // Continue moving in this direction until hitting a piece or board edge
-        for (int distance = 1; distance < 8; distance++) {
-            Position target = current.offset(colStep, rowStep);
-
-            if (!target.isValid()) {
-                break; // Reached edge of board
-            }
-
-            Piece targetPiece = board.getPiece(target);
-
-            if (targetPiece == null) {
-                // Empty square - can move here
-                checkAndAddMove(board, start, target, null, moves);
-            } else {
-                // Found a piece
-                if (targetPiece.getColor() != getColor()) {
-                    // Can capture opponent's piece
-                    checkAndAddMove(board, start, target, targetPiece, moves);
-                }
-                // Can't move past any piece
-                break;
-            }
-
-            current = target;
-        }
-    }
-
-    private void checkAndAddMove(Board board, Position from, Position to, Piece capturedPiece, List<Move> moveList) {
-        Move candidate = Move.createMove(from, to, this, capturedPiece);
-
-        // Only add if the move doesn't leave our king in check
-        if (!wouldMakeOwnKingVulnerable(board, candidate)) {
-            moveList.add(candidate);
-        }
-    }
-
     @Override
     public List<Position> getAttackPositions(Board board) {
-        List<Position> attackedSquares = new ArrayList<>();
         Position start = getPosition();
 
-        if (start == null) return attackedSquares;
-
-        // Check all eight directions
-        for (int[] direction : MOVEMENT_VECTORS) {
-            Position current = start;
-
-            // Move outward until hitting edge or piece
-            for (int distance = 1; distance < 8; distance++) {
-                Position target = current.offset(direction[0], direction[1]);
-
-                if (!target.isValid()) {
-                    break; // Off the board
-                }
-
-                attackedSquares.add(target);
-
-                // Can't attack beyond any piece
-                if (board.getPiece(target) != null) {
-                    break;
-                }
-
-                current = target;
-            }
-        }
+        if (start == null) return new ArrayList<>();
 
-        return attackedSquares;
+        // Each direction up to and including the first piece in the way
+        return toPositions(Bitboards.queenAttacks(Bitboards.square(start), board.getOccupancy()));
     }
 
     @Override
     public Piece duplicate() {
-        return new Queen(
-                getColor(),
-                getPosition() != null ? new Position(getPosition().getColumn(), getPosition().getRow()) : null,
-                hasMoved()
-        );
+        return new Queen(getColor(), getPosition(), hasMoved());
     }
 
     @Override
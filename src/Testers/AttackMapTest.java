@@ -0,0 +1,70 @@
+package Testers;
+
+import Model.Bitboards;
+import Model.Board;
+import Model.Fen;
+import Model.MoveList;
+import Model.Perft;
+import Model.PieceColor;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * The attack map Board updates move by move must always equal one computed from the attack tables
+ */
+public class AttackMapTest {
+
+    @Test
+    public void testReferencePositions() {
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            assertMatchesScan(position.getName(), Fen.toBoard(position.getFen()));
+        }
+    }
+
+    @Test
+    public void testRandomMoveSequences() {
+        Random random = new Random(20240611L);
+        MoveList moves = new MoveList();
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = Fen.toBoard(position.getFen());
+            for (int game = 0; game < 10; game++) {
+                int plies = 0;
+                for (; plies < 40; plies++) {
+                    moves.clear();
+                    board.generateLegalMoves(board.getSideToMove(), moves);
+                    if (moves.isEmpty()) {
+                        break;
+                    }
+                    board.makeMove(moves.get(random.nextInt(moves.size())));
+                    assertMatchesScan(position.getName() + " after " + (plies + 1) + " plies", board);
+                }
+                for (; plies > 0; plies--) {
+                    board.unmakeLastMove();
+                    assertMatchesScan(position.getName() + " taken back to " + (plies - 1) + " plies", board);
+                }
+            }
+        }
+    }
+
+    private void assertMatchesScan(String name, Board board) {
+        long occupancy = board.getOccupancy();
+        long whiteAttacks = 0L;
+        long blackAttacks = 0L;
+        for (int square = 0; square < 64; square++) {
+            long white = board.attackersTo(square, PieceColor.WHITE, occupancy);
+            long black = board.attackersTo(square, PieceColor.BLACK, occupancy);
+            assertEquals(name + ", attackers of square " + square, white | black, board.attackersOf(square));
+            if (white != 0) {
+                whiteAttacks |= Bitboards.bit(square);
+            }
+            if (black != 0) {
+                blackAttacks |= Bitboards.bit(square);
+            }
+        }
+        assertEquals(name + ", white attacks", whiteAttacks, board.getAttackedSquares(PieceColor.WHITE));
+        assertEquals(name + ", black attacks", blackAttacks, board.getAttackedSquares(PieceColor.BLACK));
+    }
+}
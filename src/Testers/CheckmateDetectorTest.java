@@ -0,0 +1,93 @@
+package Testers;
+
+import Controller.CheckmateDetector;
+import Model.Bitboards;
+import Model.Board;
+import Model.CheckEvasions;
+import Model.Fen;
+import Model.PieceColor;
+import Model.Position;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CheckmateDetectorTest {
+
+    @Test
+    public void testSmotheredMate() {
+        Board board = Fen.toBoard("6rk/5Npp/8/8/8/8/8/7K b - - 0 1");
+
+        assertMate(board);
+        assertEquals("A knight check cannot be blocked", 0L, CheckEvasions.blockSquares(board, PieceColor.BLACK));
+    }
+
+    @Test
+    public void testBackRankMate() {
+        Board board = Fen.toBoard("3R2k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+        assertMate(board);
+    }
+
+    @Test
+    public void testBackRankCheckCanBeBlocked() {
+        Board board = Fen.toBoard("3R2k1/5ppp/8/8/8/8/4r3/6K1 b - - 0 1");
+
+        assertNotMate(board);
+        assertEquals(0L, CheckEvasions.kingEscapes(board, PieceColor.BLACK));
+        assertEquals(0L, CheckEvasions.capturers(board, PieceColor.BLACK));
+        assertEquals("Only the rook can block, on e8", bit("e2"), CheckEvasions.blockers(board, PieceColor.BLACK));
+    }
+
+    @Test
+    public void testDoubleCheckOnlyKingMoves() {
+        // Rook and bishop both check; the rook on a5 could take the bishop and the knight could block it
+        Board board = Fen.toBoard("4k3/8/5n2/rB6/8/8/8/4R1K1 b - - 0 1");
+
+        assertNotMate(board);
+        assertEquals(0L, CheckEvasions.capturers(board, PieceColor.BLACK));
+        assertEquals(0L, CheckEvasions.blockers(board, PieceColor.BLACK));
+        assertEquals(bit("d8") | bit("f8") | bit("f7"), CheckEvasions.kingEscapes(board, PieceColor.BLACK));
+    }
+
+    @Test
+    public void testPinnedPieceCannotBlock() {
+        // The bishop on e5 could block on b8, but it is pinned to the king along the long diagonal
+        Board pinned = Fen.toBoard("R6k/7p/8/4bN2/8/2B5/8/6K1 b - - 0 1");
+        assertMate(pinned);
+
+        Board free = Fen.toBoard("R6k/7p/8/4bN2/8/8/8/6K1 b - - 0 1");
+        assertNotMate(free);
+        assertEquals(bit("e5"), CheckEvasions.blockers(free, PieceColor.BLACK));
+    }
+
+    @Test
+    public void testCheckingPawnCapturedEnPassant() {
+        // d2-d4 gave check; every king move is covered, so only exd3 en passant saves Black
+        Board board = Fen.toBoard("8/8/6QB/4k3/3Pp3/2N5/8/3R3K b - d3 0 1");
+        assertNotMate(board);
+        assertEquals(0L, CheckEvasions.kingEscapes(board, PieceColor.BLACK));
+        assertEquals(bit("e4"), CheckEvasions.capturers(board, PieceColor.BLACK));
+
+        Board noEnPassant = Fen.toBoard("8/8/6QB/4k3/3Pp3/2N5/8/3R3K b - - 0 1");
+        assertMate(noEnPassant);
+    }
+
+    private void assertMate(Board board) {
+        CheckmateDetector detector = new CheckmateDetector(board);
+        assertTrue(detector.isBlackInCheck());
+        assertTrue("Detector should find mate", detector.isBlackCheckmated());
+        assertFalse(CheckEvasions.canEvade(board, PieceColor.BLACK));
+        assertTrue("Generator should agree", board.isCheckmate(PieceColor.BLACK));
+    }
+
+    private void assertNotMate(Board board) {
+        CheckmateDetector detector = new CheckmateDetector(board);
+        assertTrue(detector.isBlackInCheck());
+        assertFalse("Detector should find a way out", detector.isBlackCheckmated());
+        assertTrue(CheckEvasions.canEvade(board, PieceColor.BLACK));
+        assertFalse("Generator should agree", board.isCheckmate(PieceColor.BLACK));
+    }
+
+    private long bit(String square) {
+        return Bitboards.bit(Position.of(square.charAt(0) - 'a', '8' - square.charAt(1)).getSquare());
+    }
+}
@@ -0,0 +1,117 @@
+package Testers;
+
+import Model.Board;
+import Model.Engine;
+import Model.Fen;
+import Model.Position;
+import Model.PackedMove;
+import Model.SearchLimits;
+import Model.SearchResult;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EngineTest {
+
+    @Test
+    public void testFindsBackRankMate() {
+        Board board = Fen.toBoard("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1");
+        SearchResult result = new Engine().search(board, SearchLimits.depth(4));
+
+        assertEquals("d1d8", PackedMove.toString(result.getBestMove()));
+        assertTrue(result.isMateScore());
+        assertEquals(1, result.getMateIn());
+    }
+
+    @Test
+    public void testTakesHangingQueen() {
+        Board board = Fen.toBoard("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        SearchResult result = new Engine().search(board, SearchLimits.depth(3));
+
+        assertEquals("d1d5", PackedMove.toString(result.getBestMove()));
+    }
+
+    @Test
+    public void testDepthLimitAndPrincipalVariation() {
+        Board board = Fen.toBoard(Fen.START_POSITION);
+        SearchResult result = new Engine().search(board, SearchLimits.depth(3));
+
+        assertEquals(3, result.getDepth());
+        assertEquals(3, result.getPrincipalVariation().length);
+        assertEquals(result.getBestMove(), result.getPrincipalVariation()[0]);
+        assertTrue(board.isLegal(Position.ofSquare(PackedMove.from(result.getBestMove())),
+                Position.ofSquare(PackedMove.to(result.getBestMove()))));
+    }
+
+    @Test
+    public void testEffectiveBranchingFactor() {
+        Board board = Fen.toBoard(Fen.START_POSITION);
+        assertEquals(0.0, new Engine().search(board, SearchLimits.depth(1)).getEffectiveBranchingFactor(), 0.0);
+
+        // Well ordered alpha-beta stays far below the 20 legal moves per ply
+        double branchingFactor = new Engine().search(board, SearchLimits.depth(5)).getEffectiveBranchingFactor();
+        assertTrue(branchingFactor > 1.0 && branchingFactor < 10.0);
+    }
+
+    @Test
+    public void testAvoidsRepeatingGamePosition() {
+        Board board = Fen.toBoard("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+        int preferred = new Engine().search(board, SearchLimits.depth(3)).getBestMove();
+        Board repeated = new Board(board);
+        repeated.makeMove(preferred);
+
+        // The position after the preferred move already occurred in the game, so it would only draw
+        SearchResult result = new Engine().search(board, SearchLimits.depth(3), new long[]{repeated.getZobristKey()});
+        assertNotEquals(preferred, result.getBestMove());
+        assertTrue(result.getScore() > 0);
+    }
+
+    @Test
+    public void testNodeLimitStopsSearch() {
+        Board board = Fen.toBoard(Fen.START_POSITION);
+        SearchResult result = new Engine().search(board, SearchLimits.nodes(5000));
+
+        assertTrue(result.getNodes() <= 5000 || result.getDepth() == 1);
+        assertNotEquals(PackedMove.NONE, result.getBestMove());
+    }
+
+    @Test
+    public void testSearchLeavesBoardUnchanged() {
+        Board board = Fen.toBoard("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        long key = board.getZobristKey();
+
+        new Engine().search(board, SearchLimits.depth(3));
+
+        assertEquals(key, board.getZobristKey());
+        assertTrue(board.getMoveHistory().isEmpty());
+    }
+
+    @Test
+    public void testMultiThreadedSearch() {
+        Engine engine = new Engine();
+        engine.setThreads(3);
+        try {
+            Board board = Fen.toBoard("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1");
+            SearchResult result = engine.search(board, SearchLimits.depth(5));
+            assertEquals("d1d8", PackedMove.toString(result.getBestMove()));
+            assertEquals(1, result.getMateIn());
+
+            // Helpers are reused by the next search
+            result = engine.search(Fen.toBoard(Fen.START_POSITION), SearchLimits.depth(4));
+            assertEquals(4, result.getDepth());
+            assertEquals(3, engine.getThreads());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    public void testNoMoveWhenCheckmated() {
+        // Fool's mate
+        Board board = Fen.toBoard("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        SearchResult result = new Engine().search(board, SearchLimits.depth(3));
+
+        assertEquals(PackedMove.NONE, result.getBestMove());
+        assertEquals(-Engine.MATE, result.getScore());
+    }
+}
@@ -1,7 +1,9 @@
 package Testers;
 
 import Model.Board;
+import Model.BoardSnapshot;
 import Model.GameState;
+import Model.MaterialKey;
 import Model.Move;
 import Model.PieceColor;
 import Model.Position;
@@ -202,4 +204,113 @@ public class GameStateTest {
         // Check can be blocked
         assertFalse("Black king should not be in checkmate", board.isCheckmate(PieceColor.BLACK));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testThreefoldRepetitionClaim() {
+        // Shuffle the knights out and back; the start position recurs every four plies
+        playKnightShuffle(1);
+        assertEquals("Start position should have occurred twice", 2, gameState.getRepetitionCount());
+        assertFalse("Two occurrences should not allow a claim", gameState.canClaimThreefoldRepetition());
+
+        playKnightShuffle(1);
+        assertEquals("Start position should have occurred three times", 3, gameState.getRepetitionCount());
+        assertTrue("Draw claim should be accepted", gameState.claimThreefoldRepetition());
+        assertTrue("Game should be over after the claim", gameState.isGameOver());
+        assertEquals("Draw by threefold repetition", gameState.getGameResult());
+    }
+
+    @Test
+    public void testFivefoldRepetitionEndsGame() {
+        playKnightShuffle(3);
+        assertFalse("Four occurrences should not end the game", gameState.isGameOver());
+
+        playKnightShuffle(1);
+        assertTrue("Fifth occurrence should end the game", gameState.isGameOver());
+        assertEquals("Draw by fivefold repetition", gameState.getGameResult());
+    }
+
+    @Test
+    public void testPawnMoveResetsRepetition() {
+        playKnightShuffle(2);
+        Board gameBoard = gameState.getBoard();
+        gameState.makeMove(createMove(gameBoard, new Position(4, 6), new Position(4, 4)));
+        assertEquals("Position after a pawn move should be new", 1, gameState.getRepetitionCount());
+    }
+
+    @Test
+    public void testRepetitionHistory() {
+        long start = gameState.getBoard().getZobristKey();
+        playKnightShuffle(1);
+        long[] history = gameState.getRepetitionHistory();
+        assertEquals("Every earlier position since the start should be kept", 4, history.length);
+        assertEquals(start, history[0]);
+
+        Board gameBoard = gameState.getBoard();
+        gameState.makeMove(createMove(gameBoard, new Position(4, 6), new Position(4, 4)));
+        assertEquals("A pawn move should clear the history", 0, gameState.getRepetitionHistory().length);
+    }
+
+    @Test
+    public void testInsufficientMaterialWithSameColoredBishops() {
+        board.placePieceForTesting(new King(PieceColor.WHITE, new Position(4, 7)));
+        board.placePieceForTesting(new King(PieceColor.BLACK, new Position(4, 0)));
+        // c1 and f8 are both dark squares
+        board.placePieceForTesting(new Bishop(PieceColor.WHITE, new Position(2, 7)));
+        board.placePieceForTesting(new Bishop(PieceColor.BLACK, new Position(5, 0)));
+
+        assertTrue("Bishops on one square color cannot mate",
+                MaterialKey.isInsufficientMaterial(board.getMaterialKey()));
+
+        // Add a white bishop on f1, a light square
+        board.placePieceForTesting(new Bishop(PieceColor.WHITE, new Position(5, 7)));
+        assertFalse("Bishops on both square colors can mate",
+                MaterialKey.isInsufficientMaterial(board.getMaterialKey()));
+    }
+
+    @Test
+    public void testSnapshotPublishedAfterEachMove() {
+        Position g1 = new Position(6, 7);
+        Position f3 = new Position(5, 5);
+        BoardSnapshot before = gameState.getSnapshot();
+        long keyBefore = before.getZobristKey();
+        int knight = before.getPieceCode(g1);
+        assertEquals(-1, before.getLastMoveTo());
+
+        gameState.makeMove(createMove(gameState.getBoard(), g1, f3));
+        BoardSnapshot after = gameState.getSnapshot();
+
+        // The earlier snapshot is untouched by the move
+        assertEquals(keyBefore, before.getZobristKey());
+        assertEquals(knight, before.getPieceCode(g1));
+        assertEquals(0, before.getPieceCode(f3));
+        assertEquals(PieceColor.WHITE, before.getSideToMove());
+
+        assertNotSame("Each move should publish a new snapshot", before, after);
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(gameState.getBoard().getZobristKey(), after.getZobristKey());
+        assertEquals(knight, after.getPieceCode(f3));
+        assertEquals(0, after.getPieceCode(g1));
+        assertEquals(PieceColor.BLACK, after.getSideToMove());
+        assertEquals(f3.getSquare(), after.getLastMoveTo());
+
+        gameState.makeMove(createMove(gameState.getBoard(), new Position(6, 0), new Position(5, 2)));
+        assertNotSame(after, gameState.getSnapshot());
+        assertEquals(knight, after.getPieceCode(f3));
+        assertEquals(PieceColor.BLACK, after.getSideToMove());
+    }
+
+    // Play Ng1-f3, Ng8-f6, Nf3-g1, Nf6-g8 the given number of times
+    private void playKnightShuffle(int times) {
+        Board gameBoard = gameState.getBoard();
+        for (int i = 0; i < times; i++) {
+            gameState.makeMove(createMove(gameBoard, new Position(6, 7), new Position(5, 5)));
+            gameState.makeMove(createMove(gameBoard, new Position(6, 0), new Position(5, 2)));
+            gameState.makeMove(createMove(gameBoard, new Position(5, 5), new Position(6, 7)));
+            gameState.makeMove(createMove(gameBoard, new Position(5, 2), new Position(6, 0)));
+        }
+    }
+
+    private Move createMove(Board gameBoard, Position from, Position to) {
+        return Move.createMove(from, to, gameBoard.getPiece(from), gameBoard.getPiece(to));
+    }
+}
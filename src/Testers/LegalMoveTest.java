@@ -0,0 +1,122 @@
+package Testers;
+
+import Model.Bitboards;
+import Model.Board;
+import Model.Fen;
+import Model.PackedMove;
+import Model.Position;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Edge cases for validating a single move with Board.isLegal and findLegalMove
+ */
+public class LegalMoveTest {
+
+    @Test
+    public void testCastlingThroughAndOutOfCheck() {
+        Board free = Fen.toBoard("k7/8/8/8/8/8/8/4K2R w K - 0 1");
+        assertTrue("Castling with nothing attacked should be legal", isLegal(free, "e1", "g1"));
+
+        Board through = Fen.toBoard("k4r2/8/8/8/8/8/8/4K2R w K - 0 1");
+        assertFalse("King may not castle across an attacked square", isLegal(through, "e1", "g1"));
+        assertTrue("King may still step aside", isLegal(through, "e1", "d1"));
+
+        Board into = Fen.toBoard("k5r1/8/8/8/8/8/8/4K2R w K - 0 1");
+        assertFalse("King may not castle into check", isLegal(into, "e1", "g1"));
+
+        Board outOf = Fen.toBoard("k3r3/8/8/8/8/8/8/4K2R w K - 0 1");
+        assertFalse("King may not castle out of check", isLegal(outOf, "e1", "g1"));
+    }
+
+    @Test
+    public void testCastlingAfterRookMoved() {
+        Board board = Fen.toBoard("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        play(board, "h1", "h2");
+        play(board, "a8", "a7");
+        play(board, "h2", "h1");
+        play(board, "a7", "a8");
+
+        assertFalse("Rook that moved and came back may not castle", isLegal(board, "e1", "g1"));
+        assertTrue("The other rook may still castle", isLegal(board, "e1", "c1"));
+    }
+
+    @Test
+    public void testEnPassantExposingKingAlongRank() {
+        Board pinned = Fen.toBoard("8/8/8/K2pP2r/8/8/8/7k w - d6 0 1");
+        assertFalse("Taking en passant would clear the rank to the king", isLegal(pinned, "e5", "d6"));
+        assertTrue("Pushing leaves the other pawn blocking", isLegal(pinned, "e5", "e6"));
+
+        Board free = Fen.toBoard("8/8/8/K2pP3/8/8/8/7k w - d6 0 1");
+        int move = free.findLegalMove(at("e5"), at("d6"), Bitboards.QUEEN);
+        assertTrue("Unpinned en passant should be legal", PackedMove.isEnPassant(move));
+    }
+
+    @Test
+    public void testPinnedPieceAlongAndOffRay() {
+        Board rook = Fen.toBoard("4r1k1/8/8/8/8/8/4R3/4K3 w - - 0 1");
+        assertTrue("Pinned rook may move along the pin", isLegal(rook, "e2", "e5"));
+        assertTrue("Pinned rook may take the pinning piece", isLegal(rook, "e2", "e8"));
+        assertFalse("Pinned rook may not leave the pin", isLegal(rook, "e2", "d2"));
+
+        Board bishop = Fen.toBoard("4r1k1/8/8/8/8/8/4B3/4K3 w - - 0 1");
+        assertFalse("Bishop pinned on a file has no legal move", isLegal(bishop, "e2", "d3"));
+    }
+
+    @Test
+    public void testDoublePushAfterMoving() {
+        Board board = Fen.toBoard(Fen.START_POSITION);
+        assertTrue(isLegal(board, "e2", "e4"));
+
+        board.getPiece(at("e2")).setHasMoved(true);
+        assertFalse("A pawn that has moved may not push two squares", isLegal(board, "e2", "e4"));
+        assertTrue("It may still push one", isLegal(board, "e2", "e3"));
+
+        play(board, "d2", "d3");
+        play(board, "a7", "a6");
+        assertFalse(isLegal(board, "d3", "d5"));
+    }
+
+    @Test
+    public void testPromotionKinds() {
+        Board board = Fen.toBoard("k7/4P3/8/8/8/8/8/4K3 w - - 0 1");
+        assertTrue("Promotion defaults to a queen", isLegal(board, "e7", "e8"));
+        assertEquals(Bitboards.QUEEN, PackedMove.promotionKind(board.findLegalMove(at("e7"), at("e8"), Bitboards.QUEEN)));
+
+        for (int kind = Bitboards.KNIGHT; kind <= Bitboards.QUEEN; kind++) {
+            int move = board.findLegalMove(at("e7"), at("e8"), kind);
+            assertTrue(PackedMove.isPromotion(move));
+            assertEquals(kind, PackedMove.promotionKind(move));
+        }
+        assertFalse("A pawn may not promote to a pawn", board.isLegal(at("e7"), at("e8"), Bitboards.PAWN));
+        assertFalse("A pawn may not promote to a king", board.isLegal(at("e7"), at("e8"), Bitboards.KING));
+    }
+
+    @Test
+    public void testKingStepsAlongSliderRay() {
+        Board board = Fen.toBoard("k7/8/8/8/8/8/8/r3K3 w - - 0 1");
+        assertFalse("King may not retreat along the checking rank", isLegal(board, "e1", "f1"));
+        assertFalse("King may not step toward the rook on its rank", isLegal(board, "e1", "d1"));
+        assertTrue("King may leave the rank", isLegal(board, "e1", "e2"));
+
+        Board diagonal = Fen.toBoard("k7/8/8/8/2b5/8/4K3/8 w - - 0 1");
+        assertFalse("King may not retreat along the checking diagonal", isLegal(diagonal, "e2", "f1"));
+        assertTrue(isLegal(diagonal, "e2", "e1"));
+    }
+
+    // Board square from algebraic notation, e.g. "e4"
+    private Position at(String square) {
+        return Position.of(square.charAt(0) - 'a', '8' - square.charAt(1));
+    }
+
+    private boolean isLegal(Board board, String from, String to) {
+        return board.isLegal(at(from), at(to));
+    }
+
+    private void play(Board board, String from, String to) {
+        int move = board.findLegalMove(at(from), at(to), Bitboards.QUEEN);
+        assertNotEquals(from + to + " should be legal", PackedMove.NONE, move);
+        board.makeMove(board.toMove(move));
+    }
+}
@@ -0,0 +1,118 @@
+package Testers;
+
+import Model.Bitboards;
+import Model.Board;
+import Model.Fen;
+import Model.Move;
+import Model.MoveUndo;
+import Model.PackedMove;
+import Model.Position;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Board copies share one move history buffer; each must keep seeing exactly its own moves
+ */
+public class MoveHistoryTest {
+
+    @Test
+    public void testCopyAppendsAfterOriginal() {
+        Board original = Fen.toBoard(Fen.START_POSITION);
+        play(original, "e2", "e4");
+        Board copy = new Board(original);
+
+        Move originalMove = playMove(original, "e7", "e5");
+        Move copyMove = playMove(copy, "c7", "c5");
+
+        assertEquals(2, original.getMoveHistory().size());
+        assertEquals(2, copy.getMoveHistory().size());
+        assertSame(originalMove, original.getLastMove());
+        assertSame(copyMove, copy.getLastMove());
+        assertSame(original.getMoveHistory().get(0), copy.getMoveHistory().get(0));
+    }
+
+    @Test
+    public void testUnmakeAfterCopyKeepsCopysMove() {
+        Board original = Fen.toBoard(Fen.START_POSITION);
+        MoveUndo undo = play(original, "e2", "e4");
+        Move shared = original.getLastMove();
+        Board copy = new Board(original);
+        List<Move> snapshot = original.getMoveHistory();
+
+        original.unmakeMove(undo);
+        assertTrue(original.getMoveHistory().isEmpty());
+        assertSame("Copy should still see the move", shared, copy.getLastMove());
+        assertSame("Snapshot should still see the move", shared, snapshot.get(0));
+
+        // The original's next move must not overwrite the slot the copy sees
+        Move replacement = playMove(original, "d2", "d4");
+        assertSame(replacement, original.getLastMove());
+        assertSame(shared, copy.getLastMove());
+        assertSame(shared, snapshot.get(0));
+        assertEquals(1, copy.getMoveHistory().size());
+    }
+
+    @Test
+    public void testSnapshotUnchangedByLaterMoves() {
+        Board board = Fen.toBoard(Fen.START_POSITION);
+        play(board, "e2", "e4");
+        List<Move> snapshot = board.getMoveHistory();
+        Move first = snapshot.get(0);
+
+        play(board, "e7", "e5");
+        play(board, "g1", "f3");
+
+        assertEquals(1, snapshot.size());
+        assertSame(first, snapshot.get(0));
+        assertEquals(3, board.getMoveHistory().size());
+        try {
+            snapshot.add(first);
+            fail("Snapshot should be read-only");
+        } catch (UnsupportedOperationException expected) {
+            assertEquals(1, snapshot.size());
+        }
+    }
+
+    @Test
+    public void testGrowthPastInitialCapacity() {
+        Board board = Fen.toBoard(Fen.START_POSITION);
+        Board copy = null;
+        Move[] played = new Move[80];
+        for (int i = 0; i < played.length; i += 4) {
+            played[i] = playMove(board, "g1", "f3");
+            played[i + 1] = playMove(board, "g8", "f6");
+            played[i + 2] = playMove(board, "f3", "g1");
+            played[i + 3] = playMove(board, "f6", "g8");
+            if (i == 40) {
+                // A copy taken mid-way shares the buffer as it fills and outgrows it
+                copy = new Board(board);
+            }
+        }
+
+        List<Move> history = board.getMoveHistory();
+        assertEquals(played.length, history.size());
+        for (int i = 0; i < played.length; i++) {
+            assertSame("Move " + i, played[i], history.get(i));
+        }
+        assertEquals(44, copy.getMoveHistory().size());
+        assertSame(played[43], copy.getLastMove());
+    }
+
+    private Move playMove(Board board, String from, String to) {
+        play(board, from, to);
+        return board.getLastMove();
+    }
+
+    private MoveUndo play(Board board, String from, String to) {
+        int move = board.findLegalMove(at(from), at(to), Bitboards.QUEEN);
+        assertNotEquals(from + to + " should be legal", PackedMove.NONE, move);
+        return board.makeMove(board.toMove(move));
+    }
+
+    private Position at(String square) {
+        return Position.of(square.charAt(0) - 'a', '8' - square.charAt(1));
+    }
+}
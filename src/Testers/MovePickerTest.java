@@ -0,0 +1,92 @@
+package Testers;
+
+import Model.Board;
+import Model.Fen;
+import Model.MoveList;
+import Model.MovePicker;
+import Model.PackedMove;
+import Model.Perft;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class MovePickerTest {
+
+    @Test
+    public void testYieldsEveryLegalMoveOnce() {
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = Fen.toBoard(position.getFen());
+            checkWithEveryHashMove(board);
+
+            // The positions one ply on cover en passant and replies to checks
+            MoveList moves = new MoveList();
+            board.generateLegalMoves(board.getSideToMove(), moves);
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(moves.get(i));
+                checkWithEveryHashMove(board);
+                board.unmakeLastMove();
+            }
+        }
+    }
+
+    @Test
+    public void testIgnoresHashMoveFromAnotherPosition() {
+        // e2e4 in the start position; Kiwipete has no pawn on e2
+        Board start = Fen.toBoard(Fen.START_POSITION);
+        int foreignMove = findMove(start, "e2e4");
+        Board board = Fen.toBoard(Perft.REFERENCE_POSITIONS.get(1).getFen());
+
+        assertEquals(legalMoves(board), pickedMoves(board, foreignMove));
+    }
+
+    @Test
+    public void testHashMoveComesFirst() {
+        Board board = Fen.toBoard(Perft.REFERENCE_POSITIONS.get(1).getFen());
+        int hashMove = findMove(board, "e1g1");
+
+        MovePicker picker = new MovePicker(board, board.getSideToMove(), hashMove, new MoveList());
+        assertEquals(hashMove, picker.next());
+    }
+
+    // Try the picker with no hash move and with each legal move as the hash move
+    private void checkWithEveryHashMove(Board board) {
+        Set<Integer> expected = legalMoves(board);
+        assertEquals(expected, pickedMoves(board, PackedMove.NONE));
+        for (int hashMove : expected) {
+            assertEquals(expected, pickedMoves(board, hashMove));
+        }
+    }
+
+    private Set<Integer> legalMoves(Board board) {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        Set<Integer> legal = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            legal.add(moves.get(i));
+        }
+        assertEquals("Generator should not repeat a move", moves.size(), legal.size());
+        return legal;
+    }
+
+    private Set<Integer> pickedMoves(Board board, int hashMove) {
+        MovePicker picker = new MovePicker(board, board.getSideToMove(), hashMove, new MoveList());
+        Set<Integer> picked = new HashSet<>();
+        int move;
+        while ((move = picker.next()) != PackedMove.NONE) {
+            assertTrue("Picker repeated " + PackedMove.toString(move), picked.add(move));
+        }
+        return picked;
+    }
+
+    private int findMove(Board board, String name) {
+        for (int move : legalMoves(board)) {
+            if (PackedMove.toString(move).equals(name)) {
+                return move;
+            }
+        }
+        throw new AssertionError("No legal move " + name);
+    }
+}
@@ -0,0 +1,100 @@
+package Testers;
+
+import Model.Board;
+import Model.Fen;
+import Model.Move;
+import Model.MoveUndo;
+import Model.Perft;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PerftTest {
+    // Keeps the suite fast; run Model.Perft for the deeper counts
+    private static final long MAX_TEST_NODES = 200_000;
+
+    @Test
+    public void testReferencePositions() {
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = Fen.toBoard(position.getFen());
+            for (int depth = 1; depth <= position.getMaxDepth()
+                    && position.getExpectedNodes(depth) <= MAX_TEST_NODES; depth++) {
+                assertEquals(position.getName() + " at depth " + depth,
+                        position.getExpectedNodes(depth), Perft.run(board, depth).getNodes());
+            }
+        }
+    }
+
+    @Test
+    public void testObjectModelMoveGeneration() {
+        // The UI's generator, Piece.getLegalMoves, must agree with the packed one
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = Fen.toBoard(position.getFen());
+            for (int depth = 1; depth <= 3; depth++) {
+                assertEquals(position.getName() + " at depth " + depth,
+                        position.getExpectedNodes(depth), objectModelPerft(board, depth));
+            }
+        }
+    }
+
+    // Count leaf nodes through getAllLegalMoves and makeMove(Move)/unmakeMove
+    private long objectModelPerft(Board board, int depth) {
+        List<Move> moves = board.getAllLegalMoves(board.getSideToMove());
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (Move move : moves) {
+            MoveUndo undo = board.makeMove(move);
+            nodes += objectModelPerft(board, depth - 1);
+            board.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testBoardIsUnchangedAfterRun() {
+        Board board = Fen.toBoard(Perft.REFERENCE_POSITIONS.get(1).getFen());
+        long key = board.getZobristKey();
+
+        Perft.run(board, 3);
+
+        assertEquals(key, board.getZobristKey());
+        assertTrue(board.getMoveHistory().isEmpty());
+    }
+
+    @Test
+    public void testDivideSumsToTotal() {
+        Board board = Fen.toBoard(Perft.REFERENCE_POSITIONS.get(1).getFen());
+        Perft.Result result = Perft.run(board, 3);
+
+        assertEquals(48, result.getDivide().size());
+        assertEquals(result.getNodes(), result.getDivide().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(Long.valueOf(2059), result.getDivide().get("e1g1"));
+    }
+
+    @Test
+    public void testHashedAndParallelCountsMatch() {
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = Fen.toBoard(position.getFen());
+            long expected = position.getExpectedNodes(3);
+
+            assertEquals(position.getName(), expected, Perft.run(board, 3, 1, 1).getNodes());
+            assertEquals(position.getName(), expected, Perft.run(board, 3, 4, 0).getNodes());
+            assertEquals(position.getName(), expected, Perft.run(board, 3, 4, 1).getNodes());
+        }
+    }
+
+    @Test
+    public void testInvalidFenIsRejected() {
+        try {
+            // Only seven ranks
+            Fen.toBoard("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("8 ranks"));
+        }
+    }
+}
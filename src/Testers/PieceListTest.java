@@ -0,0 +1,69 @@
+package Testers;
+
+import Model.Bitboards;
+import Model.Board;
+import Model.Fen;
+import Model.MoveUndo;
+import Model.PackedMove;
+import Model.Piece;
+import Model.PieceColor;
+import Model.Position;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Captures swap-remove pieces from the piece lists; taking the move back must restore
+ * the lists exactly, order included, since the UI iterates them
+ */
+public class PieceListTest {
+
+    @Test
+    public void testCapture() {
+        checkMakeAndUnmake("r3k2r/pp4pp/8/3p4/8/p7/1P2P1PP/3RK2R w - - 0 1", "d1", "d5", Bitboards.QUEEN);
+    }
+
+    @Test
+    public void testEnPassantCapture() {
+        checkMakeAndUnmake("r3k2r/1p4pp/8/3pP3/8/p7/1P4PP/4K3 w - d6 0 1", "e5", "d6", Bitboards.QUEEN);
+    }
+
+    @Test
+    public void testPromotion() {
+        checkMakeAndUnmake("1n2k2r/P5pp/8/8/8/8/6PP/R3K3 w - - 0 1", "a7", "a8", Bitboards.QUEEN);
+        checkMakeAndUnmake("1n2k2r/P5pp/8/8/8/8/6PP/R3K3 w - - 0 1", "a7", "b8", Bitboards.KNIGHT);
+    }
+
+    // Play the move both as a packed move and as a Move, checking both colors' lists after each undo
+    private void checkMakeAndUnmake(String fen, String from, String to, int promotionKind) {
+        Board board = Fen.toBoard(fen);
+        List<Piece> white = piecesOf(board, PieceColor.WHITE);
+        List<Piece> black = piecesOf(board, PieceColor.BLACK);
+
+        int move = board.findLegalMove(at(from), at(to), promotionKind);
+        assertNotEquals(from + to + " should be legal", PackedMove.NONE, move);
+
+        board.makeMove(move);
+        assertFalse("The move should change a piece list", white.equals(piecesOf(board, PieceColor.WHITE))
+                && black.equals(piecesOf(board, PieceColor.BLACK)));
+        board.unmakeLastMove();
+        assertEquals(white, piecesOf(board, PieceColor.WHITE));
+        assertEquals(black, piecesOf(board, PieceColor.BLACK));
+
+        MoveUndo undo = board.makeMove(board.toMove(move));
+        board.unmakeMove(undo);
+        assertEquals(white, piecesOf(board, PieceColor.WHITE));
+        assertEquals(black, piecesOf(board, PieceColor.BLACK));
+    }
+
+    private List<Piece> piecesOf(Board board, int color) {
+        return new ArrayList<>(board.getPiecesByColor(color));
+    }
+
+    private Position at(String square) {
+        return Position.of(square.charAt(0) - 'a', '8' - square.charAt(1));
+    }
+}
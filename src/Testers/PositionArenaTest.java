@@ -0,0 +1,105 @@
+package Testers;
+
+import Model.Board;
+import Model.Fen;
+import Model.MoveList;
+import Model.Perft;
+import Model.PositionArena;
+import Model.Zobrist;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PositionArenaTest {
+    private static final int CHUNK_POSITIONS = 1 << 20;
+
+    @Test
+    public void testRoundTrip() {
+        PositionArena arena = new PositionArena();
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = Fen.toBoard(position.getFen());
+            long index = arena.append(board);
+            assertSamePosition(position.getName(), board, arena.toBoard(index));
+        }
+        assertEquals(Perft.REFERENCE_POSITIONS.size(), arena.size());
+    }
+
+    @Test
+    public void testCastlingRightsAndEnPassantKept() {
+        Board board = Fen.toBoard("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 1");
+        PositionArena arena = new PositionArena();
+        long index = arena.append(board);
+
+        assertEquals(Zobrist.WHITE_KINGSIDE | Zobrist.BLACK_QUEENSIDE, arena.getCastlingRights(index));
+        assertEquals(board.getEnPassantSquare(), arena.getEnPassantSquare(index));
+        assertEquals(board.getSideToMove(), arena.getSideToMove(index));
+
+        Board unpacked = arena.toBoard(index);
+        assertEquals(Zobrist.castlingRights(board), Zobrist.castlingRights(unpacked));
+        assertEquals(board.getEnPassantSquare(), unpacked.getEnPassantSquare());
+        assertSamePosition("castling and en passant", board, unpacked);
+    }
+
+    @Test
+    public void testAppendAllFromAnotherArena() {
+        List<Board> boards = new ArrayList<>();
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            boards.add(Fen.toBoard(position.getFen()));
+        }
+        PositionArena source = new PositionArena();
+        source.appendAll(boards);
+
+        PositionArena copy = new PositionArena();
+        copy.append(boards.get(0));
+        assertEquals(1, copy.appendAll(source, 2, 3));
+        assertEquals(4, copy.size());
+        for (int i = 0; i < 3; i++) {
+            assertSamePosition("copied position " + i, boards.get(2 + i), copy.toBoard(1 + i));
+        }
+    }
+
+    @Test
+    public void testIndexingAcrossChunkBoundary() {
+        Board start = Fen.toBoard(Fen.START_POSITION);
+        Board kiwipete = Fen.toBoard(Perft.REFERENCE_POSITIONS.get(1).getFen());
+        PositionArena arena = new PositionArena();
+        arena.append(start);
+        arena.append(kiwipete);
+        // Double the arena by copying it onto itself; even indices hold the start position
+        while (arena.size() <= CHUNK_POSITIONS) {
+            arena.appendAll(arena, 0, arena.size());
+        }
+
+        assertSamePosition("last of first chunk", kiwipete, arena.toBoard(CHUNK_POSITIONS - 1));
+        assertSamePosition("first of second chunk", start, arena.toBoard(CHUNK_POSITIONS));
+        assertSamePosition("second of second chunk", kiwipete, arena.toBoard(CHUNK_POSITIONS + 1));
+        assertSamePosition("first position after growth", start, arena.toBoard(0));
+    }
+
+    @Test
+    public void testMoreThan32PiecesRejected() {
+        Board board = Fen.toBoard("rnbqkbnr/pppppppp/N7/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        PositionArena arena = new PositionArena();
+        try {
+            arena.append(board);
+            fail("A 33-piece position should be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(0, arena.size());
+        }
+    }
+
+    private void assertSamePosition(String name, Board expected, Board actual) {
+        assertEquals(name, expected.getZobristKey(), actual.getZobristKey());
+        assertEquals(name, expected.getMaterialKey(), actual.getMaterialKey());
+        assertEquals(name, legalMoveCount(expected), legalMoveCount(actual));
+    }
+
+    private int legalMoveCount(Board board) {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        return moves.size();
+    }
+}
@@ -0,0 +1,70 @@
+package Testers;
+
+import Model.Bitboards;
+import Model.Board;
+import Model.Fen;
+import Model.MoveUndo;
+import Model.PackedMove;
+import Model.PieceColor;
+import Model.Position;
+import Model.PositionStatus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Board caches each side's status per position; a move or its undo must never leave a stale one
+ */
+public class PositionStatusTest {
+    // Rd1-d8 is mate
+    private static final String BACK_RANK = "6k1/5ppp/8/8/8/8/8/3R2K1 w - - 0 1";
+
+    @Test
+    public void testStatusFollowsMakeAndUnmake() {
+        Board board = Fen.toBoard(BACK_RANK);
+        assertOngoing(board.getStatus(PieceColor.BLACK));
+
+        int mate = findMate(board);
+        board.makeMove(mate);
+        assertTrue("Cached status should see the mate", board.getStatus(PieceColor.BLACK).isCheckmate());
+        board.unmakeLastMove();
+        assertOngoing(board.getStatus(PieceColor.BLACK));
+
+        MoveUndo undo = board.makeMove(board.toMove(mate));
+        assertTrue(board.isCheckmate(PieceColor.BLACK));
+        board.unmakeMove(undo);
+        assertOngoing(board.getStatus(PieceColor.BLACK));
+    }
+
+    @Test
+    public void testCopyKeepsItsOwnStatus() {
+        Board original = Fen.toBoard(BACK_RANK);
+        assertOngoing(original.getStatus(PieceColor.BLACK));
+        Board copy = new Board(original);
+        int mate = findMate(original);
+
+        copy.makeMove(mate);
+        assertTrue("Copy should see the mate", copy.getStatus(PieceColor.BLACK).isCheckmate());
+        assertOngoing(original.getStatus(PieceColor.BLACK));
+
+        copy.unmakeLastMove();
+        assertOngoing(copy.getStatus(PieceColor.BLACK));
+
+        original.makeMove(mate);
+        assertTrue(original.getStatus(PieceColor.BLACK).isCheckmate());
+        assertOngoing(copy.getStatus(PieceColor.BLACK));
+    }
+
+    private int findMate(Board board) {
+        int move = board.findLegalMove(Position.of(3, 7), Position.of(3, 0), Bitboards.QUEEN);
+        assertNotEquals(PackedMove.NONE, move);
+        return move;
+    }
+
+    private void assertOngoing(PositionStatus status) {
+        assertFalse(status.isInCheck());
+        assertTrue(status.hasLegalMove());
+        assertFalse(status.isCheckmate());
+        assertFalse(status.isStalemate());
+    }
+}
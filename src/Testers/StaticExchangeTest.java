@@ -0,0 +1,70 @@
+package Testers;
+
+import Model.Bitboards;
+import Model.Board;
+import Model.Fen;
+import Model.PackedMove;
+import Model.PieceColor;
+import Model.Position;
+import Model.StaticExchange;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StaticExchangeTest {
+
+    private static int square(String name) {
+        return Bitboards.square(name.charAt(0) - 'a', 8 - (name.charAt(1) - '0'));
+    }
+
+    private static int move(Board board, String from, String to) {
+        int packed = board.findLegalMove(Position.ofSquare(square(from)), Position.ofSquare(square(to)),
+                Bitboards.QUEEN);
+        assertNotEquals("Illegal test move " + from + to, PackedMove.NONE, packed);
+        return packed;
+    }
+
+    @Test
+    public void testUndefendedCapture() {
+        Board board = Fen.toBoard("4k3/8/8/3p4/8/8/8/3RK3 w - - 0 1");
+        assertEquals(100, StaticExchange.evaluate(board, move(board, "d1", "d5")));
+    }
+
+    @Test
+    public void testRecapturingPawnPromotes() {
+        // Qxe8 Rxe8 dxe8=Q would lose Black the rook, so Black does not recapture and White keeps the knight
+        Board board = Fen.toBoard("4nr1k/3P4/8/8/8/8/8/K3Q3 w - - 0 1");
+        assertEquals(320, StaticExchange.evaluate(board, move(board, "e1", "e8")));
+    }
+
+    @Test
+    public void testDefendedPawnLosesRook() {
+        Board board = Fen.toBoard("4k3/8/4p3/3p4/8/8/8/3RK3 w - - 0 1");
+        assertEquals(-400, StaticExchange.evaluate(board, move(board, "d1", "d5")));
+        assertFalse(StaticExchange.isAtLeast(board, move(board, "d1", "d5"), 0));
+    }
+
+    @Test
+    public void testDefenderDeclinesLosingRecapture() {
+        // Pawn takes knight; bishop recapturing would lose to the queen behind the pawn
+        Board board = Fen.toBoard("4k3/8/1b6/8/3n4/4P3/8/3QK3 w - - 0 1");
+        assertEquals(320, StaticExchange.evaluate(board, move(board, "e3", "d4")));
+    }
+
+    @Test
+    public void testXRayRecapture() {
+        // Rooks doubled on the d-file win the defended pawn: RxP RxR RxR
+        Board board = Fen.toBoard("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1");
+        assertEquals(100, StaticExchange.evaluate(board, move(board, "d2", "d5")));
+    }
+
+    @Test
+    public void testHangingPieces() {
+        // The knight on c6 is attacked by a pawn; the rook on a8 is not attacked at all
+        Board board = Fen.toBoard("r3k3/8/2n5/1P6/8/8/8/4K3 b - - 0 1");
+        assertTrue(StaticExchange.isHanging(board, square("c6")));
+        assertFalse(StaticExchange.isHanging(board, square("a8")));
+        assertEquals(Bitboards.bit(square("c6")), StaticExchange.getHangingPieces(board, PieceColor.BLACK));
+        assertEquals(0L, StaticExchange.getHangingPieces(board, PieceColor.WHITE));
+    }
+}
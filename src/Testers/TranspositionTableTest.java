@@ -0,0 +1,74 @@
+package Testers;
+
+import Model.TranspositionTable;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+        table.store(key, 0x3FFFFFF, -31000, 12, TranspositionTable.LOWER);
+
+        long entry = table.probe(key);
+        assertEquals(0x3FFFFFF, TranspositionTable.move(entry));
+        assertEquals(-31000, TranspositionTable.score(entry));
+        assertEquals(12, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(0L, table.probe(key ^ 1L << 40));
+    }
+
+    @Test
+    public void testShallowerResultDoesNotReplaceDeeper() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L;
+        table.store(key, 100, 50, 8, TranspositionTable.LOWER);
+        table.store(key, 200, 10, 3, TranspositionTable.UPPER);
+
+        assertEquals(8, TranspositionTable.depth(table.probe(key)));
+
+        // After a new search the old entry may be overwritten
+        table.newSearch();
+        table.store(key, 0, 10, 3, TranspositionTable.UPPER);
+        long entry = table.probe(key);
+        assertEquals(3, TranspositionTable.depth(entry));
+        // The old best move is kept when the new result has none
+        assertEquals(100, TranspositionTable.move(entry));
+    }
+
+    @Test
+    public void testOldEntriesAreEvictedFirst() {
+        TranspositionTable table = new TranspositionTable(1);
+        int clusters = table.getMegabytes() * 1024 * 1024 / 64;
+        // Five keys that share one cluster of four entries
+        long[] keys = new long[5];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 7L + (long) i * clusters;
+        }
+
+        // One search old, this depth 10 entry counts as less than depth 5
+        table.store(keys[0], 1, 0, 10, TranspositionTable.EXACT);
+        table.newSearch();
+        for (int i = 1; i < 4; i++) {
+            table.store(keys[i], 1, 0, 5, TranspositionTable.EXACT);
+        }
+        table.store(keys[4], 1, 0, 5, TranspositionTable.EXACT);
+
+        // The entry from the earlier search was the one replaced
+        assertEquals(0L, table.probe(keys[0]));
+        for (int i = 1; i < keys.length; i++) {
+            assertNotEquals(0L, table.probe(keys[i]));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(99L, 1, 0, 1, TranspositionTable.EXACT);
+        table.clear();
+        assertEquals(0L, table.probe(99L));
+    }
+}
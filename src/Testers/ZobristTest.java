@@ -0,0 +1,131 @@
+package Testers;
+
+import Model.Bitboards;
+import Model.Board;
+import Model.Fen;
+import Model.Move;
+import Model.MoveList;
+import Model.MoveUndo;
+import Model.PackedMove;
+import Model.Perft;
+import Model.Position;
+import Model.Zobrist;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * The key Board keeps up to date move by move must always equal one hashed from scratch
+ */
+public class ZobristTest {
+
+    @Test
+    public void testCastling() {
+        Board board = Fen.toBoard(Perft.REFERENCE_POSITIONS.get(1).getFen());
+        checkMoveAndTakeBack(board, "e1g1");
+        checkMoveAndTakeBack(board, "e1c1");
+    }
+
+    @Test
+    public void testEnPassant() {
+        Board board = Fen.toBoard("8/8/8/K2pP3/8/8/8/7k w - d6 0 1");
+        int move = checkMoveAndTakeBack(board, "e5d6");
+        assertTrue(PackedMove.isEnPassant(move));
+    }
+
+    @Test
+    public void testPromotion() {
+        // a7 can promote by pushing to a8 or by taking the knight on b8
+        Board board = Fen.toBoard("1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        for (int kind = Bitboards.KNIGHT; kind <= Bitboards.QUEEN; kind++) {
+            checkMoveAndTakeBack(board, board.findLegalMove(Position.of(0, 1), Position.of(0, 0), kind));
+            checkMoveAndTakeBack(board, board.findLegalMove(Position.of(0, 1), Position.of(1, 0), kind));
+        }
+    }
+
+    @Test
+    public void testRandomMoveSequences() {
+        Random random = new Random(20240611L);
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = Fen.toBoard(position.getFen());
+            long rootKey = board.getZobristKey();
+            for (int game = 0; game < 20; game++) {
+                int plies = playRandomly(board, random, 40);
+                for (int i = 0; i < plies; i++) {
+                    board.unmakeLastMove();
+                    assertEquals(Zobrist.compute(board), board.getZobristKey());
+                }
+                assertEquals(rootKey, board.getZobristKey());
+            }
+        }
+    }
+
+    @Test
+    public void testObjectMovesAndUndo() {
+        Random random = new Random(7L);
+        Board board = Fen.toBoard(Perft.REFERENCE_POSITIONS.get(1).getFen());
+        long rootKey = board.getZobristKey();
+        Deque<MoveUndo> undos = new ArrayDeque<>();
+        for (int ply = 0; ply < 60; ply++) {
+            List<Move> moves = board.getAllLegalMoves(board.getSideToMove());
+            if (moves.isEmpty()) {
+                break;
+            }
+            undos.push(board.makeMove(moves.get(random.nextInt(moves.size()))));
+            assertEquals(Zobrist.compute(board), board.getZobristKey());
+        }
+        while (!undos.isEmpty()) {
+            board.unmakeMove(undos.pop());
+            assertEquals(Zobrist.compute(board), board.getZobristKey());
+        }
+        assertEquals(rootKey, board.getZobristKey());
+    }
+
+    // Play up to a number of random packed moves, checking the key after each; returns the moves played
+    private int playRandomly(Board board, Random random, int maxPlies) {
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < maxPlies; ply++) {
+            moves.clear();
+            board.generateLegalMoves(board.getSideToMove(), moves);
+            if (moves.isEmpty()) {
+                return ply;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            assertEquals(Zobrist.compute(board), board.getZobristKey());
+        }
+        return maxPlies;
+    }
+
+    private int checkMoveAndTakeBack(Board board, String name) {
+        int move = findMove(board, name);
+        checkMoveAndTakeBack(board, move);
+        return move;
+    }
+
+    private void checkMoveAndTakeBack(Board board, int move) {
+        assertNotEquals("Move should be legal", PackedMove.NONE, move);
+        long before = board.getZobristKey();
+        board.makeMove(move);
+        assertEquals(Zobrist.compute(board), board.getZobristKey());
+        assertNotEquals(before, board.getZobristKey());
+        board.unmakeLastMove();
+        assertEquals(before, board.getZobristKey());
+        assertEquals(Zobrist.compute(board), board.getZobristKey());
+    }
+
+    private int findMove(Board board, String name) {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.toString(moves.get(i)).equals(name)) {
+                return moves.get(i);
+            }
+        }
+        return PackedMove.NONE;
+    }
+}
@@ -2,6 +2,7 @@ package View;
 
 import Controller.GameController;
 import Model.Board;
+import Model.BoardSnapshot;
 import Model.Piece;
 import Model.Position;
 
@@ -32,7 +33,7 @@ public class ChessBoardUI extends JPanel implements BoardView {
         for (int row = 0; row < BOARD_SIZE; row++) {
             for (int col = 0; col < BOARD_SIZE; col++) {
                 boolean isLight = (row + col) % 2 != 0;
-                Position position = new Position(col, row);
+                Position position = Position.of(col, row);
                 ChessSquareView square = new ChessSquareView(position, isLight, this);
                 squares[row][col] = square;
                 add(square);
@@ -41,16 +42,17 @@ public class ChessBoardUI extends JPanel implements BoardView {
     }
 
     public void updateBoard() {
-        Board board = controller.getBoard();
+        // Draw from the published snapshot; the live board may be mid-move on another thread
+        BoardSnapshot snapshot = controller.getBoardSnapshot();
         for (int row = 0; row < BOARD_SIZE; row++) {
             for (int col = 0; col < BOARD_SIZE; col++) {
-                Position position = new Position(col, row);
-                Piece piece = board.getPiece(position);
+                Position position = Position.of(col, row);
 
                 int displayRow = isFlipped ? (BOARD_SIZE - 1 - row) : row;
                 int displayCol = isFlipped ? (BOARD_SIZE - 1 - col) : col;
 
-                squares[displayRow][displayCol].setPiece(piece);
+                squares[displayRow][displayCol].setPiece(snapshot.getPieceKind(position),
+                        snapshot.getPieceColor(position));
             }
         }
         repaint();
@@ -60,7 +62,7 @@ public class ChessBoardUI extends JPanel implements BoardView {
     public void updateBoard(Board board) {
         for (int row = 0; row < BOARD_SIZE; row++) {
             for (int col = 0; col < BOARD_SIZE; col++) {
-                Position position = new Position(col, row);
+                Position position = Position.of(col, row);
                 Piece piece = board.getPiece(position);
 
                 int displayRow = isFlipped ? (BOARD_SIZE - 1 - row) : row;
@@ -2,6 +2,7 @@ package View;
 
 import Model.Piece;
 import Model.PieceColor;
+import Model.PieceKind;
 import Model.Position;
 
 import javax.swing.*;
@@ -32,7 +33,8 @@ public class ChessSquareView extends JPanel {
     private static final String BLACK_PAWN = "♟";
 
     private Position position;
-    private Piece piece;
+    private PieceKind pieceKind; // null when the square is empty
+    private int pieceColor;
     private boolean isLightSquare;
     private boolean isHighlighted;
     private boolean isSelected;
@@ -63,7 +65,12 @@ public class ChessSquareView extends JPanel {
     }
 
     public void setPiece(Piece piece) {
-        this.piece = piece;
+        setPiece(piece == null ? null : piece.getKind(), piece == null ? 0 : piece.getColor());
+    }
+
+    public void setPiece(PieceKind kind, int color) {
+        this.pieceKind = kind;
+        this.pieceColor = color;
         repaint();
     }
 
@@ -125,7 +132,7 @@ public class ChessSquareView extends JPanel {
         }
 
         // Draw piece
-        if (piece != null) {
+        if (pieceKind != null) {
             Graphics2D g2d = (Graphics2D) g;
             g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
@@ -134,7 +141,7 @@ public class ChessSquareView extends JPanel {
             g2d.setFont(font);
 
             // Get piece symbol
-            String symbol = getUnicodeSymbol(piece);
+            String symbol = getUnicodeSymbol(pieceKind, pieceColor);
 
             // Calculate centering
             FontMetrics metrics = g2d.getFontMetrics(font);
@@ -147,27 +154,22 @@ public class ChessSquareView extends JPanel {
         }
     }
 
-    private String getUnicodeSymbol(Piece piece) {
-        if (piece == null) return "";
-
-        String type = piece.getType();
-        boolean isWhite = piece.getColor() == PieceColor.WHITE;
+    private String getUnicodeSymbol(PieceKind kind, int color) {
+        boolean isWhite = color == PieceColor.WHITE;
 
-        switch (type) {
-            case "King":
+        switch (kind) {
+            case KING:
                 return isWhite ? WHITE_KING : BLACK_KING;
-            case "Queen":
+            case QUEEN:
                 return isWhite ? WHITE_QUEEN : BLACK_QUEEN;
-            case "Rook":
+            case ROOK:
                 return isWhite ? WHITE_ROOK : BLACK_ROOK;
-            case "Bishop":
+            case BISHOP:
                 return isWhite ? WHITE_BISHOP : BLACK_BISHOP;
-            case "Knight":
+            case KNIGHT:
                 return isWhite ? WHITE_KNIGHT : BLACK_KNIGHT;
-            case "Pawn":
-                return isWhite ? WHITE_PAWN : BLACK_PAWN;
             default:
-                return type; // Fallback to text representation
+                return isWhite ? WHITE_PAWN : BLACK_PAWN;
         }
     }
 }
\ No newline at end of file